@@ -0,0 +1,398 @@
+package com.comp2042;
+
+import com.comp2042.logic.bricks.Brick;
+import com.comp2042.logic.bricks.BrickShape;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 束搜索规划器（BeamSearchPlanner），规划接下来的 {@code pieces} 个方块：
+ * 当前方块加上生成器扩展预览（{@link SimpleBoard#getPreview}）中的
+ * {@code pieces - 1} 个方块。
+ *
+ * 玩家只看得到当前方块和下一个方块（{@link PlacementBot#VISIBLE_BRICKS}）。
+ * 规划更多方块要读取隐藏的方块序列，和 PlacementBot 一样只允许在显式的
+ * oracle 模式下使用（模拟、离线分析），GUI 的 strong 机器人从不使用。
+ *
+ * 逐层进行：束中的每个棋盘都用这一层方块的所有可达落点展开，子棋盘用
+ * {@link BoardEvaluator} 打分（包括沿途消掉的行），只保留最好的
+ * {@code beamWidth} 个互不相同的棋盘。答案是通往最后一层最好棋盘的路径上的
+ * 第一个落点。和 {@link PlacementBot} 不同，开销随方块数线性增长
+ * （每层约 beamWidth × 34 个落点），所以 K 和 N 是在强度和延迟之间取舍：
+ * 默认值几毫秒就能决策，宽束加长预览用于离线分析，
+ * 例如分析 {@link ReplayPlayer#getEngine()} 的棋盘。
+ *
+ * 展开在工作窃取的 fork-join 池上运行，每个池线程在自己的临时 SimpleBoard
+ * 上走子，从束里的存档恢复。束本身是每个调用线程两组原地重填的存档槽，
+ * 所以一次搜索几乎不分配对象。
+ *
+ * 每一层的方块对整个束都相同（落点不会改变序列），相同棋盘的子节点会合并，
+ * 保留分数更好的那个。结果与线程调度无关：各个值独立计算，
+ * 在调用线程上按枚举顺序选择。规划器本身是线程安全的。
+ */
+public final class BeamSearchPlanner implements PlacementPolicy {
+
+    public static final int DEFAULT_BEAM_WIDTH = 16;
+    public static final int DEFAULT_PIECES = PlacementBot.VISIBLE_BRICKS;
+
+    /** 放下后下一个方块无法生成时的落点价值 */
+    private static final double TOP_OUT = -1e9;
+
+    /** 每个 fork-join 叶子任务处理的候选数 */
+    private static final int LEAF_SIZE = 16;
+
+    private final BoardEvaluator evaluator;
+    private final int beamWidth;
+    private final int pieces;
+    private final boolean oracle;
+    private final ForkJoinPool pool;
+
+    // 每个展开线程一块临时棋盘
+    private final ThreadLocal<SimpleBoard> scratch = new ThreadLocal<>();
+    // 每个调用线程一份束存储
+    private final ThreadLocal<Beam> beams = new ThreadLocal<>();
+
+    /** 默认权重、束宽和预览长度，公共 fork-join 池 */
+    public BeamSearchPlanner() {
+        this(BoardEvaluator.DEFAULT, DEFAULT_BEAM_WIDTH, DEFAULT_PIECES, ForkJoinPool.commonPool());
+    }
+
+    /** 只规划看得见的方块（pieces 最多 {@link PlacementBot#VISIBLE_BRICKS}） */
+    public BeamSearchPlanner(BoardEvaluator evaluator, int beamWidth, int pieces, ForkJoinPool pool) {
+        this(evaluator, beamWidth, pieces, false, pool);
+    }
+
+    /**
+     * @param beamWidth 每层保留的棋盘数（K）
+     * @param pieces    规划的方块数，包括当前方块（N；1 = 贪心）
+     * @param oracle    允许 pieces > VISIBLE_BRICKS，即读取隐藏的方块序列
+     */
+    public BeamSearchPlanner(BoardEvaluator evaluator, int beamWidth, int pieces, boolean oracle,
+                             ForkJoinPool pool) {
+        if (beamWidth < 1) {
+            throw new IllegalArgumentException("beamWidth must be at least 1: " + beamWidth);
+        }
+        if (pieces < 1) {
+            throw new IllegalArgumentException("pieces must be at least 1: " + pieces);
+        }
+        if (pieces > PlacementBot.VISIBLE_BRICKS && !oracle) {
+            throw new IllegalArgumentException("pieces " + pieces + " reads hidden bricks, only allowed in oracle mode");
+        }
+        this.evaluator = evaluator;
+        this.beamWidth = beamWidth;
+        this.pieces = pieces;
+        this.oracle = oracle;
+        this.pool = pool;
+    }
+
+    public int getBeamWidth() {
+        return beamWidth;
+    }
+
+    public int getPieces() {
+        return pieces;
+    }
+
+    public boolean isOracle() {
+        return oracle;
+    }
+
+    /**
+     * 一个调用线程的束存档槽和候选数组。束中的一项是放完若干方块之后的局面，
+     * 下一个方块已经生成。写成静态类，这样线程局部变量的值不会让长寿线程
+     * 一直引用规划器（以及它的 ThreadLocal）。
+     */
+    private static final class Beam {
+        final int rows;
+        final int cols;
+        final boolean bombMode;
+        BoardSnapshot[] current;
+        BoardSnapshot[] next;
+        double[] lines;
+        double[] nextLines;
+        int[] rootRotation;
+        int[] rootX;
+        int[] nextRootRotation;
+        int[] nextRootX;
+        int size;
+
+        // 候选 c = (束中第 c / count 项, 第 c % count 个落点)
+        double[] values = new double[0];
+        long[] hashes = new long[0];
+        final int[] selected;
+
+        Beam(BoardSnapshot position, int beamWidth) {
+            current = new BoardSnapshot[beamWidth];
+            next = new BoardSnapshot[beamWidth];
+            lines = new double[beamWidth];
+            nextLines = new double[beamWidth];
+            rootRotation = new int[beamWidth];
+            rootX = new int[beamWidth];
+            nextRootRotation = new int[beamWidth];
+            nextRootX = new int[beamWidth];
+            selected = new int[beamWidth];
+            rows = position.getRows();
+            cols = position.getCols();
+            bombMode = position.isBombMode();
+        }
+
+        boolean fits(BoardSnapshot position) {
+            return rows == position.getRows() && cols == position.getCols()
+                    && bombMode == position.isBombMode();
+        }
+
+        void ensureCandidates(int n) {
+            if (values.length < n) {
+                values = new double[n];
+                hashes = new long[n];
+            }
+        }
+
+        void swap() {
+            BoardSnapshot[] slots = current;
+            current = next;
+            next = slots;
+            double[] l = lines;
+            lines = nextLines;
+            nextLines = l;
+            int[] r = rootRotation;
+            rootRotation = nextRootRotation;
+            nextRootRotation = r;
+            int[] x = rootX;
+            rootX = nextRootX;
+            nextRootX = x;
+        }
+    }
+
+    @Override
+    public Placement choose(SimpleBoard board) {
+        return choose(board.snapshot());
+    }
+
+    /** 给定局面下当前方块的最佳落点 */
+    @Override
+    public Placement choose(BoardSnapshot position) {
+        SimpleBoard board = scratchFor(position);
+        Beam beam = beams.get();
+        if (beam == null || !beam.fits(position)) {
+            beam = new Beam(position, beamWidth);
+            beams.set(beam);
+        }
+
+        // 根节点：预览队列只填一次，所有副本共用
+        board.restore(position);
+        Brick[] bricks = new Brick[pieces];
+        bricks[0] = position.brick;
+        for (int p = 1; p < pieces; p++) {
+            bricks[p] = board.getPreview(p - 1);
+        }
+        beam.current[0] = snapshotInto(board, beam.current[0]);
+        beam.lines[0] = 0;
+        beam.size = 1;
+
+        int cols = position.getCols();
+        // 下一个方块无法生成的最好候选，以防没有任何候选存活
+        double fallbackValue = Double.NEGATIVE_INFINITY;
+        Placement fallback = null;
+
+        for (int ply = 0; ply < pieces; ply++) {
+            boolean last = ply == pieces - 1;
+
+            // 这一层方块的落点，对束中每一项都相同
+            List<BrickShape> shapes = bricks[ply].getShapes();
+            int count = 0;
+            for (BrickShape shape : shapes) {
+                count += cols - shape.getMaxX() + shape.getMinX();
+            }
+            int[] rotations = new int[count];
+            int[] xs = new int[count];
+            int n = 0;
+            for (int r = 0; r < shapes.size(); r++) {
+                BrickShape shape = shapes.get(r);
+                for (int x = -shape.getMinX(); x <= cols - 1 - shape.getMaxX(); x++) {
+                    rotations[n] = r;
+                    xs[n] = x;
+                    n++;
+                }
+            }
+
+            int total = beam.size * count;
+            beam.ensureCandidates(total);
+            pool.invoke(new ExpandTask(this, beam, rotations, xs, !last, 0, total));
+
+            int kept = select(beam, total);
+            for (int c = 0; c < total; c++) {
+                double value = beam.values[c];
+                if (value != Double.NEGATIVE_INFINITY && value <= TOP_OUT / 2 && value > fallbackValue) {
+                    fallbackValue = value;
+                    int parent = c / count;
+                    fallback = ply == 0
+                            ? new Placement(rotations[c], xs[c])
+                            : new Placement(beam.rootRotation[parent], beam.rootX[parent]);
+                }
+            }
+            if (kept == 0) {
+                break;
+            }
+            if (last) {
+                int c = beam.selected[0];
+                int parent = c / count;
+                return ply == 0
+                        ? new Placement(rotations[c], xs[c])
+                        : new Placement(beam.rootRotation[parent], beam.rootX[parent]);
+            }
+
+            // 把存活的候选重放到另一组存档槽
+            for (int k = 0; k < kept; k++) {
+                int c = beam.selected[k];
+                int parent = c / count;
+                int j = c % count;
+                board.restore(beam.current[parent]);
+                Placement.moveTo(board, rotations[j], xs[j]);
+                int lines = land(board);
+                board.createNewBrick();
+                beam.next[k] = snapshotInto(board, beam.next[k]);
+                beam.nextLines[k] = beam.lines[parent] + evaluator.linesValue(lines);
+                beam.nextRootRotation[k] = ply == 0 ? rotations[j] : beam.rootRotation[parent];
+                beam.nextRootX[k] = ply == 0 ? xs[j] : beam.rootX[parent];
+            }
+            beam.swap();
+            beam.size = kept;
+        }
+
+        if (fallback != null) {
+            return fallback;
+        }
+        // 哪里都到不了：原地落下
+        return new Placement(position.rotation, position.x);
+    }
+
+    /**
+     * 把最好的 beamWidth 个存活候选选进 beam.selected，最好的在前；
+     * 相同的棋盘只保留更好（或更早）的那个。
+     */
+    private int select(Beam beam, int total) {
+        double[] values = beam.values;
+        long[] hashes = beam.hashes;
+        int[] selected = beam.selected;
+        int size = 0;
+
+        for (int c = 0; c < total; c++) {
+            double value = values[c];
+            if (value == Double.NEGATIVE_INFINITY || value <= TOP_OUT / 2) {
+                continue;
+            }
+            if (size == beamWidth && value <= values[selected[size - 1]]) {
+                continue;
+            }
+            int duplicate = -1;
+            for (int k = 0; k < size; k++) {
+                if (hashes[selected[k]] == hashes[c]) {
+                    duplicate = k;
+                    break;
+                }
+            }
+            if (duplicate >= 0) {
+                if (value <= values[selected[duplicate]]) {
+                    continue;
+                }
+                // 丢掉较差的副本
+                System.arraycopy(selected, duplicate + 1, selected, duplicate, size - duplicate - 1);
+                size--;
+            }
+
+            // 插在所有不比它差的项之后
+            int at = size == beamWidth ? size - 1 : size;
+            while (at > 0 && values[selected[at - 1]] < value) {
+                selected[at] = selected[at - 1];
+                at--;
+            }
+            selected[at] = c;
+            if (size < beamWidth) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /** 给一层中一段候选打分。从不序列化 */
+    @SuppressWarnings("serial")
+    private static final class ExpandTask extends RecursiveAction {
+        private final BeamSearchPlanner planner;
+        private final Beam beam;
+        private final int[] rotations;
+        private final int[] xs;
+        private final boolean spawnNext;
+        private final int from;
+        private final int to;
+
+        ExpandTask(BeamSearchPlanner planner, Beam beam, int[] rotations, int[] xs, boolean spawnNext,
+                   int from, int to) {
+            this.planner = planner;
+            this.beam = beam;
+            this.rotations = rotations;
+            this.xs = xs;
+            this.spawnNext = spawnNext;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                int count = rotations.length;
+                SimpleBoard board = planner.scratchFor(beam.current[from / count]);
+                for (int c = from; c < to; c++) {
+                    int parent = c / count;
+                    int j = c % count;
+                    board.restore(beam.current[parent]);
+                    if (!Placement.moveTo(board, rotations[j], xs[j])) {
+                        beam.values[c] = Double.NEGATIVE_INFINITY;
+                        continue;
+                    }
+                    int lines = land(board);
+                    BoardState state = board.getBoardState();
+                    double value = beam.lines[parent] + planner.evaluator.evaluate(state, lines);
+                    if (spawnNext && board.createNewBrick()) {
+                        value += TOP_OUT;
+                    }
+                    beam.values[c] = value;
+                    beam.hashes[c] = state.getHash();
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ExpandTask(planner, beam, rotations, xs, spawnNext, from, mid),
+                    new ExpandTask(planner, beam, rotations, xs, spawnNext, mid, to));
+        }
+    }
+
+    private SimpleBoard scratchFor(BoardSnapshot position) {
+        SimpleBoard board = scratch.get();
+        if (board == null
+                || board.getBoardState().getRows() != position.getRows()
+                || board.getBoardState().getCols() != position.getCols()
+                || board.isBombMode() != position.isBombMode()) {
+            board = SimpleBoard.fromSnapshot(position);
+            scratch.set(board);
+        }
+        return board;
+    }
+
+    private static BoardSnapshot snapshotInto(SimpleBoard board, BoardSnapshot slot) {
+        if (slot == null) {
+            return board.snapshot();
+        }
+        board.snapshot(slot);
+        return slot;
+    }
+
+    /** 硬降、合并（或爆炸）并消行；返回消掉的行数 */
+    private static int land(SimpleBoard board) {
+        board.hardDrop();
+        board.mergeBrickToBackground();
+        return board.clearRows().getLinesRemoved();
+    }
+}
@@ -9,6 +9,8 @@
 
 package com.comp2042;
 
+import com.comp2042.logic.bricks.BrickGenerator;
+
 public interface Board {
 
     boolean moveBrickDown();
@@ -17,6 +19,12 @@ public interface Board {
 
     boolean moveBrickRight();
 
+    /**
+     * 硬降：当前方块直接落到最底部（不合并到背景），返回下落的格数。
+     * Hard drop: moves the brick straight to its landing row and returns the distance.
+     */
+    int hardDrop();
+
     boolean rotateLeftBrick();
 
     boolean createNewBrick();
@@ -32,4 +40,35 @@ public interface Board {
     Score getScore();
 
     void newGame();
+
+    /**
+     * 新游戏，并换成新的方块生成器（例如换一个种子）。
+     * Starts a new game with a different brick generator (e.g. a new seed).
+     */
+    void newGame(BrickGenerator brickGenerator);
+
+    /**
+     * 局面哈希：背景的 Zobrist 哈希，再加上当前方块的种类、旋转和位置。
+     * Zobrist hash of the background combined with the current brick's
+     * shape, rotation and position. Equal positions always hash equal.
+     */
+    long getPositionHash();
+
+    /**
+     * 存档：复制当前的完整状态（背景、当前方块、方块生成器、分数）。
+     * Copies the complete board state; see {@link #restore}.
+     */
+    BoardSnapshot snapshot();
+
+    /**
+     * 存档到已有的槽里（原地覆盖，不分配内存）。slot 必须来自同一个棋盘的 snapshot()。
+     * Overwrites a slot created by {@link #snapshot()} on this board, without allocating.
+     */
+    void snapshot(BoardSnapshot slot);
+
+    /**
+     * 读档：回到 snapshot() 时的状态。存档本身不会被修改，可以反复恢复。
+     * Returns to a snapshot taken from this board; the snapshot stays reusable.
+     */
+    void restore(BoardSnapshot snapshot);
 }
@@ -0,0 +1,77 @@
+package com.comp2042;
+
+/**
+ * 棋盘局面打分（越大越好），给 AI 选落点用。四个特征：
+ * - aggregate height：所有列高度之和
+ * - holes：上面有方块挡住的空格数
+ * - bumpiness：相邻两列高度差的绝对值之和
+ * - lines：这一步消掉的行数
+ *
+ * 特征全部从 BoardState 的列高度和行位图直接算出来，不需要 int[][]：
+ * 空洞数从上往下扫一遍行位图，用“上面出现过方块的列”位图和本行的空位做 AND 再数 1 的个数。
+ *
+ * Weighted linear evaluation of a board. Immutable and thread-safe.
+ */
+public final class BoardEvaluator {
+
+    /** 常见的一组经验权重（高度、消行、空洞、凹凸） */
+    public static final BoardEvaluator DEFAULT = new BoardEvaluator(-0.510066, 0.760666, -0.35663, -0.184483);
+
+    private final double heightWeight;
+    private final double linesWeight;
+    private final double holesWeight;
+    private final double bumpinessWeight;
+
+    public BoardEvaluator(double heightWeight, double linesWeight, double holesWeight, double bumpinessWeight) {
+        this.heightWeight = heightWeight;
+        this.linesWeight = linesWeight;
+        this.holesWeight = holesWeight;
+        this.bumpinessWeight = bumpinessWeight;
+    }
+
+    /** 给一个（已经落子、消行之后的）局面打分，linesCleared 是这一步消掉的行数 */
+    public double evaluate(BoardState board, int linesCleared) {
+        return heightWeight * aggregateHeight(board)
+                + linesWeight * linesCleared
+                + holesWeight * holes(board)
+                + bumpinessWeight * bumpiness(board);
+    }
+
+    /**
+     * 消行部分的分数。evaluate 是线性的：evaluate(b, a + c) == evaluate(b, c) + linesValue(a)，
+     * 多步搜索可以把前面几步的消行分单独加上。
+     */
+    public double linesValue(int linesCleared) {
+        return linesWeight * linesCleared;
+    }
+
+    public static int aggregateHeight(BoardState board) {
+        int sum = 0;
+        for (int x = 0; x < board.getCols(); x++) {
+            sum += board.getColumnHeight(x);
+        }
+        return sum;
+    }
+
+    public static int bumpiness(BoardState board) {
+        int sum = 0;
+        int previous = board.getColumnHeight(0);
+        for (int x = 1; x < board.getCols(); x++) {
+            int height = board.getColumnHeight(x);
+            sum += Math.abs(height - previous);
+            previous = height;
+        }
+        return sum;
+    }
+
+    public static int holes(BoardState board) {
+        int holes = 0;
+        int covered = 0;
+        for (int y = 0; y < board.getRows(); y++) {
+            int mask = board.getRowMask(y);
+            holes += Integer.bitCount(covered & ~mask);
+            covered |= mask;
+        }
+        return holes;
+    }
+}
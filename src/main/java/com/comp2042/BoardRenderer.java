@@ -0,0 +1,41 @@
+package com.comp2042;
+
+import java.awt.Point;
+import java.util.List;
+
+/**
+ * 棋盘绘制接口：GuiController 只通过这个接口画棋盘。
+ * 目前有两种实现：
+ * - BoardView：每个格子一个 Rectangle，放在 GridPane 里
+ * - CanvasBoardView：整个棋盘画在一个 Canvas 上
+ * 用哪一种由 ViewConfig.useCanvasRenderer() 决定，方便对比两者的帧耗时。
+ *
+ * Board drawing API used by GuiController. Implemented by the Rectangle/GridPane
+ * based BoardView and the single-Canvas CanvasBoardView.
+ */
+public interface BoardRenderer {
+
+    /** 游戏开始时调用一次：建立棋盘、第一块方块、影子和 Next 预览 */
+    void initGameView(int[][] boardMatrix, ViewData brick);
+
+    /*
+     * refreshBrick / refreshBackground / renderNextBrick 只负责记录新状态，
+     * 实现可以推迟到 flush() 再真正绘制；GuiController 每个 pulse 最后调用一次 flush()，
+     * 所以一帧内不管来了多少次更新，最多只重画一次。
+     */
+
+    /** 重画当前下落的方块和影子 */
+    void refreshBrick(ViewData brick);
+
+    /** 背景变化后（合并 / 清行 / 爆炸）重画背景 */
+    void refreshBackground(int[][] board);
+
+    /** 重画右侧 Next 预览（下一块没变则跳过） */
+    void renderNextBrick(ViewData viewData);
+
+    /** 每个 pulse 调用一次：把这一帧积累的改动画出来 */
+    void flush();
+
+    /** 炸弹爆炸动画（变黑 + 震动 + 淡出） */
+    void playExplosionAnimation(List<Point> cells);
+}
@@ -0,0 +1,50 @@
+// 棋盘存档：某一时刻 SimpleBoard 的完整状态（背景、当前方块、方块生成器、分数）。
+// 里面的对象都是复制出来的副本，读档时还会再复制一次，所以同一个存档可以反复恢复。
+// 存档也是一个可以复用的“槽”：Board.snapshot(slot) 把新状态原地写进去，
+// 只复制几百个字节、不分配内存，AI 往前看几步 / 撤销 / 回滚每帧做几千次也没问题。
+//
+// Complete copy of a board at one moment: background, current brick and its
+// position / rotation, the brick generator (so the upcoming sequence is the
+// same) and the score. Created by Board.snapshot(), overwritten in place by
+// Board.snapshot(slot), used by Board.restore().
+
+package com.comp2042;
+
+import com.comp2042.logic.bricks.Brick;
+import com.comp2042.logic.bricks.BrickGenerator;
+
+public final class BoardSnapshot {
+
+    final BoardState boardState;
+    BrickGenerator brickGenerator;
+    Brick brick;
+    int rotation;
+    int x;
+    int y;
+    final Score score;
+    final boolean bombMode;
+
+    BoardSnapshot(BoardState boardState, BrickGenerator brickGenerator,
+                  Brick brick, int rotation, int x, int y, Score score, boolean bombMode) {
+        this.boardState = boardState;
+        this.brickGenerator = brickGenerator;
+        this.brick = brick;
+        this.rotation = rotation;
+        this.x = x;
+        this.y = y;
+        this.score = score;
+        this.bombMode = bombMode;
+    }
+
+    public int getRows() {
+        return boardState.getRows();
+    }
+
+    public int getCols() {
+        return boardState.getCols();
+    }
+
+    public boolean isBombMode() {
+        return bombMode;
+    }
+}
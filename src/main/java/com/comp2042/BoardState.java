@@ -1,51 +1,424 @@
 package com.comp2042;
 
+import com.comp2042.logic.bricks.BrickShape;
+import com.comp2042.logic.bricks.SplitMix64;
+
+import java.util.Arrays;
+
 /**
  * 负责维护“背景棋盘”的状态：
  * - 保存已经落下的方块
  * - 合并当前方块到背景
  * - 检查并清除整行
+ *
+ * 内部用“位棋盘”存储：每一行一个 int 位图（第 x 位为 1 表示该格被占用），
+ * 颜色 id 单独存放在一个紧凑的 byte 颜色平面里。
+ * 碰撞 / 合并 / 判满行都只需要对每一行做几次移位、与、比较运算。
+ * 越界先用形状的包围盒判断，之后只看形状真正占用的行 / 格子。
+ *
+ * 另外在每次合并 / 清行 / 爆炸时增量维护：
+ * - 每一行已占用的格子数（判满行只需要看方块刚刚碰到的那几行）
+ * - 每一列的高度（落点 / 硬降距离直接查表，也方便 AI 计算棋盘特征）
+ * - 64 位 Zobrist 哈希：每个格子一个固定的随机数，被占用的格子全部 XOR 起来。
+ *   格子变化时只 XOR 变化的那几个，比较两个局面是否相同只需比较一个 long
+ *   （AI 置换表、副本之间逐 tick 校验、录像去重）。只看占用，不看颜色。
  */
 public class BoardState {
 
+    /*
+     * Zobrist 随机数表：下标 = y * 32 + x（和棋盘宽度无关）。
+     * 种子固定，所以同一个局面在任何机器、任何一次运行里哈希都相同，可以存进文件。
+     */
+    private static final int ZOBRIST_STRIDE = Integer.SIZE;
+    private static final long[] ZOBRIST = new long[Integer.SIZE * ZOBRIST_STRIDE];
+    static {
+        SplitMix64 random = new SplitMix64(0x5A0B_6157_7E72_15L);
+        for (int i = 0; i < ZOBRIST.length; i++) {
+            ZOBRIST[i] = random.nextLong();
+        }
+    }
+
     private final int rows;
     private final int cols;
 
-    /** matrix[y][x]：0 表示空，其它表示砖块 id */
-    private int[][] matrix;
+    /** 一整行全部占满时的位图（低 cols 位全为 1） */
+    private final int fullRowMask;
+
+    /** rowMasks[y]：第 y 行的占用位图，第 x 位为 1 表示 (x, y) 有方块 */
+    private final int[] rowMasks;
+
+    /** 颜色平面：colors[y * cols + x] 为砖块 id，0 表示空 */
+    private final byte[] colors;
+
+    /** rowFill[y]：第 y 行已占用的格子数，等于 cols 说明满行 */
+    private final int[] rowFill;
+
+    /** columnHeights[x]：第 x 列的高度 = rows - 最上面一个占用格子的行号，空列为 0 */
+    private final int[] columnHeights;
+
+    /** 棋盘版本号：每次内容发生变化都会加 1，方便外部判断缓存是否过期 */
+    private long version;
+
+    /** 所有被占用格子的 Zobrist 随机数异或 */
+    private long hash;
+
+    /** 上次清行之后，合并进来的方块碰到过的行范围（没有则 min > max） */
+    private int touchedMinRow;
+    private int touchedMaxRow;
+
+    /** 兼容旧接口的 int[][] 视图（matrix[y][x]），只在位棋盘变化后按需原地重建 */
+    private final int[][] matrixView;
+    private boolean matrixDirty;
+
+    /** 复用的清行结果，每次 clearFullRows 原地覆盖，落地路径上不产生新对象 */
+    private final ClearRow clearResult = new ClearRow();
 
     public BoardState(int rows, int cols) {
+        if (cols < 1 || cols > Integer.SIZE - 1) {
+            throw new IllegalArgumentException("cols must be between 1 and " + (Integer.SIZE - 1) + ": " + cols);
+        }
+        if (rows < 1 || rows > Integer.SIZE) {
+            // ClearRow 用一个 int 位图记录被清除的行
+            throw new IllegalArgumentException("rows must be between 1 and " + Integer.SIZE + ": " + rows);
+        }
         this.rows = rows;
         this.cols = cols;
-        reset();
+        this.fullRowMask = (1 << cols) - 1;
+        this.rowMasks = new int[rows];
+        this.colors = new byte[rows * cols];
+        this.rowFill = new int[rows];
+        this.columnHeights = new int[cols];
+        this.matrixView = new int[rows][cols];
+        // 新数组本来就是全空，不调用可被覆盖的 reset()
+        clearTouchedRows();
+        markChanged();
+    }
+
+    /** 复制一个内容完全相同的棋盘（存档用） */
+    public BoardState copy() {
+        BoardState copy = new BoardState(rows, cols);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * 把另一个同尺寸棋盘的内容原地复制过来（读档用）。
+     * 版本号不复制而是加 1：同一个棋盘的版本号只增不减，外部缓存不会误判。
+     */
+    public void copyFrom(BoardState other) {
+        if (other.rows != rows || other.cols != cols) {
+            throw new IllegalArgumentException("board size mismatch: " + other.rows + "x" + other.cols
+                    + " vs " + rows + "x" + cols);
+        }
+        System.arraycopy(other.rowMasks, 0, rowMasks, 0, rows);
+        System.arraycopy(other.colors, 0, colors, 0, colors.length);
+        System.arraycopy(other.rowFill, 0, rowFill, 0, rows);
+        System.arraycopy(other.columnHeights, 0, columnHeights, 0, cols);
+        touchedMinRow = other.touchedMinRow;
+        touchedMaxRow = other.touchedMaxRow;
+        hash = other.hash;
+        markChanged();
     }
 
     /** 重置棋盘为全空。 */
     public void reset() {
-        matrix = new int[rows][cols];
+        Arrays.fill(rowMasks, 0);
+        Arrays.fill(colors, (byte) 0);
+        Arrays.fill(rowFill, 0);
+        Arrays.fill(columnHeights, 0);
+        hash = 0;
+        clearTouchedRows();
+        markChanged();
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    /** 返回 (x, y) 处的砖块 id，0 表示空。 */
+    public int getCell(int x, int y) {
+        return colors[y * cols + x];
+    }
+
+    /** 棋盘版本号，内容每变化一次加 1。 */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 64 位 Zobrist 哈希（只看格子是否被占用）。
+     * 占用情况相同的两个棋盘哈希一定相同；不同的棋盘哈希相同的概率约为 2^-64。
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /** (x, y) 这个格子的 Zobrist 随机数 */
+    public static long zobristKey(int x, int y) {
+        return ZOBRIST[y * ZOBRIST_STRIDE + x];
+    }
+
+    /** 第 y 行的占用位图。 */
+    public int getRowMask(int y) {
+        return rowMasks[y];
     }
 
-    /** 返回当前棋盘矩阵。 */
+    /** 第 y 行已占用的格子数。 */
+    public int getRowFill(int y) {
+        return rowFill[y];
+    }
+
+    /** 第 x 列的高度（从棋盘底部算起，空列为 0）。 */
+    public int getColumnHeight(int x) {
+        return columnHeights[x];
+    }
+
+    /**
+     * 返回当前棋盘矩阵（matrix[y][x]）。
+     * 这是从位棋盘重建出来的视图，只给 GUI 等旧代码读取，修改它不会影响棋盘。
+     * 每次返回同一个数组，棋盘变化后会被原地覆盖，需要保留请自己 copy。
+     */
     public int[][] getMatrix() {
-        return matrix;
+        if (matrixDirty) {
+            for (int y = 0; y < rows; y++) {
+                int[] row = matrixView[y];
+                if (rowMasks[y] == 0) {
+                    Arrays.fill(row, 0);
+                    continue;
+                }
+                int base = y * cols;
+                for (int x = 0; x < cols; x++) {
+                    row[x] = colors[base + x];
+                }
+            }
+            matrixDirty = false;
+        }
+        return matrixView;
     }
 
-    /** 把传入矩阵整体替换到 BoardState（用于兼容旧的 MatrixOperations.merge） */
+    /** 把传入矩阵整体载入 BoardState（尺寸不符则忽略） */
     public void replaceMatrix(int[][] newMatrix) {
         if (newMatrix == null) return;
         if (newMatrix.length != rows || newMatrix[0].length != cols) return;
-        this.matrix = newMatrix;
+
+        for (int y = 0; y < rows; y++) {
+            int mask = 0;
+            int base = y * cols;
+            for (int x = 0; x < cols; x++) {
+                int id = newMatrix[y][x];
+                colors[base + x] = (byte) id;
+                if (id != 0) {
+                    mask |= 1 << x;
+                }
+            }
+            rowMasks[y] = mask;
+            rowFill[y] = Integer.bitCount(mask);
+        }
+        recomputeColumnHeights();
+        hash = 0;
+        for (int y = 0; y < rows; y++) {
+            hash ^= rowHash(y, rowMasks[y]);
+        }
+        // 整个棋盘都换了，下次清行要检查所有行
+        touchedMinRow = 0;
+        touchedMaxRow = rows - 1;
+        markChanged();
+    }
+
+    /**
+     * 检查形状 shape 放在 (offsetX, offsetY) 时，是否会越界或与已有方块重叠。
+     * 越界只比较包围盒的四条边；碰撞只遍历包围盒内的行，每行一次移位 + AND。
+     */
+    public boolean intersects(BrickShape shape, int offsetX, int offsetY) {
+        int top = offsetY + shape.getMinY();
+        int bottom = offsetY + shape.getMaxY();
+        if (offsetX + shape.getMinX() < 0 || offsetX + shape.getMaxX() >= cols
+                || top < 0 || bottom >= rows) {
+            return true;
+        }
+
+        for (int y = top; y <= bottom; y++) {
+            int mask = shape.getRowMask(y - offsetY);
+            int placed = offsetX >= 0 ? mask << offsetX : mask >>> -offsetX;
+            if ((rowMasks[y] & placed) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 合并当前方块到背景：只遍历形状真正占用的格子（通常 4 个），
+     * 写入占用位和颜色平面。越界的格子会被忽略。
+     */
+    public void mergeBrick(BrickShape shape, int offsetX, int offsetY) {
+        byte id = (byte) shape.getId();
+        for (int i = 0; i < shape.getCellCount(); i++) {
+            int x = offsetX + shape.getCellX(i);
+            int y = offsetY + shape.getCellY(i);
+            if (x < 0 || x >= cols || y < 0 || y >= rows) continue;
+
+            int bit = 1 << x;
+            if ((rowMasks[y] & bit) == 0) {
+                rowMasks[y] |= bit;
+                rowFill[y]++;
+                hash ^= zobristKey(x, y);
+                columnHeights[x] = Math.max(columnHeights[x], rows - y);
+            }
+            colors[y * cols + x] = id;
+
+            touchedMinRow = Math.min(touchedMinRow, y);
+            touchedMaxRow = Math.max(touchedMaxRow, y);
+        }
+        markChanged();
     }
 
-    /** 合并当前方块到背景 */
-    public void mergeBrick(int[][] shape, int offsetX, int offsetY) {
-        matrix = MatrixOperations.merge(matrix, shape, offsetX, offsetY);
+    /**
+     * 形状从 (offsetX, offsetY) 竖直往下最多还能落几格（当前位置必须合法）。
+     * 对形状占用的每一列，用该列最下面的格子和列高度比较即可；
+     * 只有方块已经钻到某列的“屋檐”下面时，才需要顺着那一列往下找。
+     * 方块每一列的格子都是连续的，所以只看每列最下面的格子就够了。
+     */
+    public int dropDistance(BrickShape shape, int offsetX, int offsetY) {
+        int distance = rows;
+        for (int c = shape.getMinX(); c <= shape.getMaxX(); c++) {
+            int bottom = shape.getColumnBottom(c);
+            if (bottom < 0) continue;
+
+            int x = offsetX + c;
+            int cellY = offsetY + bottom;
+            int surface = rows - columnHeights[x];
+
+            int landingY;
+            if (cellY < surface) {
+                landingY = surface - 1;
+            } else {
+                int bit = 1 << x;
+                int y = cellY + 1;
+                while (y < rows && (rowMasks[y] & bit) == 0) {
+                    y++;
+                }
+                landingY = y - 1;
+            }
+            distance = Math.min(distance, landingY - cellY);
+        }
+        return distance;
     }
 
-    /** 检查并清除已满的行，更新 matrix，返回 ClearRow 结果。 */
+    /** 清空单个格子（炸弹爆炸用），越界则忽略。 */
+    public void clearCell(int x, int y) {
+        if (x < 0 || x >= cols || y < 0 || y >= rows) return;
+
+        int bit = 1 << x;
+        if ((rowMasks[y] & bit) == 0) return;
+
+        rowMasks[y] &= ~bit;
+        rowFill[y]--;
+        hash ^= zobristKey(x, y);
+        colors[y * cols + x] = 0;
+
+        // 清掉的是这一列最上面的格子 → 往下找新的列顶
+        if (columnHeights[x] == rows - y) {
+            int below = y + 1;
+            while (below < rows && (rowMasks[below] & bit) == 0) {
+                below++;
+            }
+            columnHeights[x] = rows - below;
+        }
+        markChanged();
+    }
+
+    /**
+     * 检查并原地清除已满的行，返回（复用的）ClearRow 结果。
+     * 只检查上次清行之后方块碰到过的那几行（rowFill == cols 即满行），
+     * 没被清除的行从最低的满行开始往上整体下移，更下面的行不用动。
+     */
     public ClearRow clearFullRows() {
-        ClearRow result = MatrixOperations.checkRemoving(matrix);
-        matrix = result.getNewMatrix();
-        return result;
+        int cleared = 0;
+        int clearedMask = 0;
+
+        for (int y = touchedMinRow; y <= touchedMaxRow; y++) {
+            if (rowFill[y] == cols) {
+                cleared++;
+                clearedMask |= 1 << y;
+            }
+        }
+        clearTouchedRows();
+
+        if (cleared > 0) {
+            int lowest = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(clearedMask);
+
+            // 只有最低的满行及以上的行会变：先把它们从哈希里去掉，移动完再加回来
+            for (int y = 0; y <= lowest; y++) {
+                hash ^= rowHash(y, rowMasks[y]);
+            }
+
+            int write = lowest;
+            for (int read = lowest; read >= 0; read--) {
+                if ((clearedMask & (1 << read)) != 0) {
+                    continue;
+                }
+                if (write != read) {
+                    rowMasks[write] = rowMasks[read];
+                    rowFill[write] = rowFill[read];
+                    System.arraycopy(colors, read * cols, colors, write * cols, cols);
+                }
+                write--;
+            }
+            for (; write >= 0; write--) {
+                rowMasks[write] = 0;
+                rowFill[write] = 0;
+                Arrays.fill(colors, write * cols, (write + 1) * cols, (byte) 0);
+            }
+            for (int y = 0; y <= lowest; y++) {
+                hash ^= rowHash(y, rowMasks[y]);
+            }
+            recomputeColumnHeights();
+            markChanged();
+        }
+
+        int scoreBonus = 50 * cleared * cleared;
+        clearResult.set(cleared, clearedMask, scoreBonus);
+        return clearResult;
+    }
+
+    /** 内容变了：int[][] 视图需要重建，版本号加 1 */
+    private void markChanged() {
+        matrixDirty = true;
+        version++;
+    }
+
+    /** 第 y 行按位图 mask 占用时的哈希（只遍历被占用的格子） */
+    private static long rowHash(int y, int mask) {
+        long h = 0;
+        int base = y * ZOBRIST_STRIDE;
+        while (mask != 0) {
+            h ^= ZOBRIST[base + Integer.numberOfTrailingZeros(mask)];
+            mask &= mask - 1;
+        }
+        return h;
+    }
+
+    private void clearTouchedRows() {
+        touchedMinRow = rows;
+        touchedMaxRow = -1;
+    }
+
+    /** 从上往下扫行位图，每列第一次出现的占用格子就是列顶。 */
+    private void recomputeColumnHeights() {
+        Arrays.fill(columnHeights, 0);
+        int seen = 0;
+        for (int y = 0; y < rows && seen != fullRowMask; y++) {
+            int fresh = rowMasks[y] & ~seen;
+            while (fresh != 0) {
+                columnHeights[Integer.numberOfTrailingZeros(fresh)] = rows - y;
+                fresh &= fresh - 1;
+            }
+            seen |= rowMasks[y];
+        }
     }
-}
\ No newline at end of file
+}
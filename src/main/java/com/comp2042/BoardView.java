@@ -3,6 +3,8 @@ package com.comp2042;
 import java.awt.Point;
 import java.util.List;
 
+import com.comp2042.logic.bricks.BrickShape;
+
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.util.Duration;
@@ -12,15 +14,18 @@ import javafx.scene.paint.Paint;
 import javafx.scene.shape.Rectangle;
 
 /**
- * Only handles drawing:
- * - background board
- * - current 4x4 brick
- * - ghost piece
- * - "Next" preview
+ * 只负责绘制（Only handles drawing）：
+ * - 背景棋盘（background board）
+ * - 当前 4x4 方块（current brick）
+ * - 影子方块（ghost piece）
+ * - “Next” 预览
+ *
+ * 只改动真正变化了的格子：新旧影子格子、值变了的背景格子，
+ * 以及形状变化时的 4x4 方块格子。
  *
- * No input / score / timeline here.
+ * 这里没有输入 / 分数 / timeline（No input / score / timeline here）。
  */
-public class BoardView {
+public class BoardView implements BoardRenderer {
 
     private final GridPane gamePanel;
     private final GridPane brickPanel;
@@ -39,9 +44,20 @@ public class BoardView {
     private Rectangle[][] displayMatrix;
     // current 4x4 falling brick cells
     private Rectangle[][] rectangles;
-    // background data (for ghost)
+    // what the background cells currently show (updated in place)
     private int[][] boardState;
 
+    // ghost cells painted last frame / being computed this frame (y * cols + x)
+    private int[] ghostCells = new int[GhostRenderer.MAX_GHOST_CELLS];
+    private int[] nextGhostCells = new int[GhostRenderer.MAX_GHOST_CELLS];
+    private int ghostCount;
+
+    // shape currently shown in the 4x4 brick panel
+    private BrickShape shownBrickShape;
+
+    // ViewData version already drawn (-1 = must redraw)
+    private long shownBrickVersion = -1;
+
     public BoardView(GridPane gamePanel,
                      GridPane brickPanel,
                      GridPane nextBrickPanel,
@@ -71,18 +87,20 @@ public class BoardView {
      * Called once when game starts.
      * Creates background cells and the first 4x4 brick.
      */
+    @Override
     public void initGameView(int[][] boardMatrix, ViewData brick) {
 
-        // copy board for ghost
+        // own copy of the board (what the cells show)
         boardState = MatrixOperations.copy(boardMatrix);
         displayMatrix = new Rectangle[boardMatrix.length][boardMatrix[0].length];
+        ghostCount = 0;
 
         // background cells (skip hidden rows)
         for (int i = hiddenRows; i < boardMatrix.length; i++) {
             for (int j = 0; j < boardMatrix[i].length; j++) {
 
                 Rectangle rect = new Rectangle(brickSize, brickSize);
-                rect.setFill(Color.TRANSPARENT);
+                setRectangleData(boardState[i][j], rect);
                 displayMatrix[i][j] = rect;
 
                 // row index in UI is (i - hiddenRows)
@@ -93,53 +111,59 @@ public class BoardView {
         // 4x4 brick on top
         brickPanel.toFront();
 
-        int[][] brickData = brick.getBrickData();
-        rectangles = new Rectangle[brickData.length][brickData[0].length];
+        BrickShape shape = brick.getBrickShape();
+        rectangles = new Rectangle[shape.getSize()][shape.getSize()];
 
-        for (int i = 0; i < brickData.length; i++) {
-            for (int j = 0; j < brickData[i].length; j++) {
+        for (int i = 0; i < shape.getSize(); i++) {
+            for (int j = 0; j < shape.getSize(); j++) {
 
                 Rectangle r = new Rectangle(brickSize, brickSize);
-                r.setFill(getFillColor(brickData[i][j]));
+                setRectangleData(shape.getCell(i, j), r);
                 rectangles[i][j] = r;
                 brickPanel.add(r, j, i);
             }
         }
+        shownBrickShape = shape;
 
         updateBrickPanelPosition(brick);
         renderNextBrick(brick);
-        ghostRenderer.drawGhost(brick, boardState, displayMatrix);
+        updateGhost(brick);
+        shownBrickVersion = brick.getVersion();
     }
 
     /* ================= refresh current brick ================= */
 
     /**
      * Redraw current falling brick + ghost piece.
-     * GuiController already checks pause.
+     * Only the ghost cells that moved and (if the shape changed) the 4x4
+     * brick cells are touched. GuiController already checks pause.
      */
+    @Override
     public void refreshBrick(ViewData brick) {
 
-        brickPanel.toFront();
-
-        // redraw background from boardState (clear old ghost)
-        for (int i = hiddenRows; i < boardState.length; i++) {
-            for (int j = 0; j < boardState[i].length; j++) {
-                setRectangleData(boardState[i][j], displayMatrix[i][j]);
-            }
+        // nothing changed since the last frame
+        if (brick.getVersion() == shownBrickVersion) {
+            return;
         }
+        shownBrickVersion = brick.getVersion();
+
+        brickPanel.toFront();
 
-        // then draw ghost again
-        ghostRenderer.drawGhost(brick, boardState, displayMatrix);
+        // erase ghost cells that are gone, paint the new ones
+        updateGhost(brick);
 
         // update 4x4 brick position
         updateBrickPanelPosition(brick);
 
-        // update colors inside 4x4 brick
-        int[][] data = brick.getBrickData();
-        for (int i = 0; i < data.length; i++) {
-            for (int j = 0; j < data[i].length; j++) {
-                setRectangleData(data[i][j], rectangles[i][j]);
+        // update colors inside 4x4 brick only when the shape changed
+        BrickShape shape = brick.getBrickShape();
+        if (shape != shownBrickShape) {
+            for (int i = 0; i < shape.getSize(); i++) {
+                for (int j = 0; j < shape.getSize(); j++) {
+                    setRectangleData(shape.getCell(i, j), rectangles[i][j]);
+                }
             }
+            shownBrickShape = shape;
         }
     }
 
@@ -147,26 +171,107 @@ public class BoardView {
 
     /**
      * Redraw background (after merge / clear rows).
-     * Also updates boardState used by ghost.
+     * Only cells whose value changed are repainted. The ghost is removed
+     * here; the following refreshBrick paints it at the new landing row.
      */
+    @Override
     public void refreshBackground(int[][] board) {
-        boardState = MatrixOperations.copy(board);
+        int cols = boardState[0].length;
 
         for (int i = hiddenRows; i < board.length; i++) {
             for (int j = 0; j < board[i].length; j++) {
-                setRectangleData(board[i][j], displayMatrix[i][j]);
+                if (board[i][j] != boardState[i][j]) {
+                    boardState[i][j] = board[i][j];
+                    paintBoardCell(j, i);
+                }
             }
         }
+        // hidden rows are not drawn, but keep them in sync
+        for (int i = 0; i < hiddenRows && i < board.length; i++) {
+            System.arraycopy(board[i], 0, boardState[i], 0, cols);
+        }
+
+        for (int k = 0; k < ghostCount; k++) {
+            paintBoardCell(ghostCells[k] % cols, ghostCells[k] / cols);
+        }
+        ghostCount = 0;
+        // ghost was erased: the next refreshBrick must draw it again
+        shownBrickVersion = -1;
     }
 
     /* ================= Next preview ================= */
 
+    @Override
     public void renderNextBrick(ViewData viewData) {
         nextBrickRenderer.renderNextBrick(viewData, nextBrickPanel);
     }
 
+    /**
+     * Nothing to do: cells are updated in place and JavaFX already renders
+     * the scene graph once per pulse.
+     */
+    @Override
+    public void flush() {
+    }
+
     /* ================= helpers ================= */
 
+    /**
+     * Diff the ghost against the previous frame:
+     * old ghost cells that are not part of the new ghost get their board
+     * colour back, new ghost cells that were not painted yet get painted.
+     */
+    private void updateGhost(ViewData brick) {
+        int rows = boardState.length;
+        int cols = boardState[0].length;
+
+        int newCount = ghostRenderer.collectGhostCells(brick, rows, cols, nextGhostCells);
+
+        for (int k = 0; k < ghostCount; k++) {
+            if (!contains(nextGhostCells, newCount, ghostCells[k])) {
+                paintBoardCell(ghostCells[k] % cols, ghostCells[k] / cols);
+            }
+        }
+        for (int k = 0; k < newCount; k++) {
+            if (!contains(ghostCells, ghostCount, nextGhostCells[k])) {
+                ghostRenderer.paintGhost(displayMatrix[nextGhostCells[k] / cols][nextGhostCells[k] % cols]);
+            }
+        }
+
+        int[] tmp = ghostCells;
+        ghostCells = nextGhostCells;
+        nextGhostCells = tmp;
+        ghostCount = newCount;
+    }
+
+    private static boolean contains(int[] cells, int count, int cell) {
+        for (int k = 0; k < count; k++) {
+            if (cells[k] == cell) return true;
+        }
+        return false;
+    }
+
+    /** Paint one background cell with the board colour it should show. */
+    private void paintBoardCell(int x, int y) {
+        Rectangle r = displayMatrix[y][x];
+        if (r != null) {
+            r.setFill(getFillColor(boardState[y][x]));
+        }
+    }
+
+    /**
+     * Put a cell back to what the current frame should show
+     * (ghost if it is a ghost cell, otherwise the board colour).
+     */
+    private void restoreCell(int x, int y) {
+        int cols = boardState[0].length;
+        if (contains(ghostCells, ghostCount, y * cols + x)) {
+            ghostRenderer.paintGhost(displayMatrix[y][x]);
+        } else {
+            paintBoardCell(x, y);
+        }
+    }
+
     private void updateBrickPanelPosition(ViewData brick) {
         double cw = brickSize + brickPanel.getHgap();
         double ch = brickSize + brickPanel.getVgap();
@@ -196,6 +301,7 @@ public class BoardView {
      * - board shakes a bit
      * - black cells fade out
      */
+    @Override
     public void playExplosionAnimation(List<Point> cells) {
 
         if (cells == null || cells.isEmpty() || displayMatrix == null) return;
@@ -297,7 +403,8 @@ public class BoardView {
                             Rectangle r = displayMatrix[y][x];
                             if (r != null) {
                                 r.setOpacity(1.0);
-                                r.setFill(Color.TRANSPARENT);
+                                // back to whatever this frame should show
+                                restoreCell(x, y);
                             }
                         }
                     }
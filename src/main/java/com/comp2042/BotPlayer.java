@@ -0,0 +1,132 @@
+package com.comp2042;
+
+import com.comp2042.logic.bricks.Brick;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 让搜索策略（{@link PlacementBot}、{@link BeamSearchPlanner}）通过
+ * {@link InputEventListener} 玩一局正在进行的游戏，和玩家完全一样：
+ * 旋转、平移、硬降。
+ *
+ * 它监听引擎。每次生成新方块时复制局面（在引擎线程上做一次便宜的存档），
+ * 然后在自己的 "bot-player" 线程上搜索，所以游戏循环从不等机器人。
+ * 走法再从这个线程发给输入监听者：
+ * - 无界面：以机器人为唯一输入源的 GameLogicThread；
+ * - GUI：{@link GuiController#createBotInput()}，转发到 FX 线程，
+ *   这样键盘和机器人共用同一个单生产者队列。
+ *
+ * 每个计划只属于一个方块，每个走法都带上这个方块的编号
+ * （{@link GameEngine#getPieceId()}）。如果方块在计划发完之前就锁定了
+ * （高等级的重力、较长的走法间隔），机器人线程不再发送剩下的走法；
+ * 已经在路上的走法（经过 FX 线程和输入队列）由逻辑线程 / 引擎按编号丢弃，
+ * 不会用到下一个方块上。下一个方块有它自己的计划。
+ */
+public final class BotPlayer implements GameEventListener {
+
+    private final GameEngine engine;
+    private final PlacementPolicy bot;
+    private final InputEventListener input;
+    private final ExecutorService worker;
+    private volatile boolean stopped;
+    private volatile long moveDelayMillis;
+    // 最新计划所针对的方块编号，由引擎线程在每个新方块出现时写入
+    private volatile long currentPiece;
+
+    public BotPlayer(GameEngine engine, PlacementPolicy bot, InputEventListener input) {
+        if (!(engine.getBoard() instanceof SimpleBoard)) {
+            throw new IllegalArgumentException("BotPlayer needs an engine on a SimpleBoard");
+        }
+        this.engine = engine;
+        this.bot = bot;
+        this.input = input;
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "bot-player");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 开始玩当前方块。在驱动引擎的线程上调用：
+     * 该线程启动之前，或者在线程内部。
+     */
+    public void start() {
+        engine.addListener(this);
+        if (((SimpleBoard) engine.getBoard()).getCurrentBrick() != null && !engine.isGameOver()) {
+            decide();
+        }
+    }
+
+    /**
+     * 两次走法之间的停顿，方便在 GUI 里看清机器人怎么走。
+     * 0（默认）一次发出整个落点的所有走法。
+     */
+    public void setMoveDelayMillis(long moveDelayMillis) {
+        if (moveDelayMillis < 0) {
+            throw new IllegalArgumentException("moveDelayMillis must not be negative: " + moveDelayMillis);
+        }
+        this.moveDelayMillis = moveDelayMillis;
+    }
+
+    /** 可在任何线程上停止机器人；已经计划好的走法仍可能到达 */
+    public void stop() {
+        stopped = true;
+        worker.shutdownNow();
+    }
+
+    /** 引擎线程：方块落地（并生成了下一个），或者开始了新的一局 */
+    @Override
+    public void onBoardChanged(int[][] matrix) {
+        if (!engine.isGameOver()) {
+            decide();
+        }
+    }
+
+    private void decide() {
+        if (stopped) return;
+        SimpleBoard board = (SimpleBoard) engine.getBoard();
+        BoardSnapshot position = board.snapshot();
+        Brick brick = board.getCurrentBrick();
+        int rotation = board.getCurrentRotation();
+        int x = board.getCurrentX();
+        long piece = engine.getPieceId();
+        currentPiece = piece;
+
+        worker.execute(() -> play(piece, bot.choose(position), brick, rotation, x));
+    }
+
+    /** 机器人线程：发送把方块变成所选落点 (rotation, x) 的走法 */
+    private void play(long piece, Placement placement, Brick brick, int rotation, int x) {
+        int turns = Placement.rotationsBetween(brick, rotation, placement.getRotation());
+        for (int i = 0; i < turns; i++) {
+            if (!send(piece, EventType.ROTATE)) return;
+        }
+        int dx = placement.getX() - x;
+        EventType shift = dx > 0 ? EventType.RIGHT : EventType.LEFT;
+        for (int i = Math.abs(dx); i > 0; i--) {
+            if (!send(piece, shift)) return;
+        }
+        send(piece, EventType.HARD_DROP);
+    }
+
+    /** 发送计划中的一步；计划过期（它的方块已经不在）或机器人已停止时返回 false */
+    private boolean send(long piece, EventType type) {
+        long delay = moveDelayMillis;
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                // stop() 会中断工作线程
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        if (stopped || piece != currentPiece) {
+            return false;
+        }
+        input.onMoveEvent(new MoveEvent(type, EventSource.USER, piece));
+        return true;
+    }
+}
@@ -1,15 +1,19 @@
 // 方块旋转工具：负责管理当前方块的旋转状态。
 // 每次旋转其实就是从方块的形状列表里切换到下一个矩阵。
-// 这里不直接做矩阵旋转，旋转的形状已经在各个砖块类里定义好了。
+// 这里不直接做矩阵旋转，旋转的形状已经在各个砖块类里定义好了，
+// 并且预先编译成只读的 BrickShape，读取时不会复制矩阵。
 //
 // Brick rotation helper. It keeps track of which rotation state
 // the brick is currently using and moves to the next one.
 // It doesn’t compute rotation itself — each brick already stores
-// its own rotated shapes.
+// its own rotated shapes as shared, read-only BrickShape instances.
 
 package com.comp2042;
 
 import com.comp2042.logic.bricks.Brick;
+import com.comp2042.logic.bricks.BrickShape;
+
+import java.util.List;
 
 public class BrickRotator {
 
@@ -17,13 +21,17 @@ public class BrickRotator {
     private int currentShape = 0;
 
     public NextShapeInfo getNextShape() {
-        int nextShape = currentShape;
-        nextShape = (++nextShape) % brick.getShapeMatrix().size();
-        return new NextShapeInfo(brick.getShapeMatrix().get(nextShape), nextShape);
+        List<BrickShape> shapes = brick.getShapes();
+        int nextShape = (currentShape + 1) % shapes.size();
+        return new NextShapeInfo(shapes.get(nextShape), nextShape);
+    }
+
+    public BrickShape getCurrentShape() {
+        return brick.getShapes().get(currentShape);
     }
 
-    public int[][] getCurrentShape() {
-        return brick.getShapeMatrix().get(currentShape);
+    public int getCurrentShapeIndex() {
+        return currentShape;
     }
 
     public void setCurrentShape(int currentShape) {
@@ -35,5 +43,7 @@ public class BrickRotator {
         currentShape = 0;
     }
 
-
+    public Brick getBrick() {
+        return brick;
+    }
 }
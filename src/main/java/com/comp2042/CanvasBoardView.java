@@ -0,0 +1,316 @@
+package com.comp2042;
+
+import java.awt.Point;
+import java.util.List;
+
+import com.comp2042.logic.bricks.BrickShape;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.layout.GridPane;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.util.Duration;
+
+/**
+ * 基于 Canvas 的 BoardView 替代实现（Canvas based alternative to BoardView）。
+ *
+ * 背景、影子、当前方块和爆炸效果都画在 gamePanel 里的同一个 Canvas 上，
+ * 每种颜色 id 用一张预先渲染好的小图（sprite）。没有每格一个的节点，
+ * 所以任何变化都不会触发 CSS / 布局计算；整个游戏区直接重画，
+ * 每个 pulse 最多一次（更新只把画布标记为 dirty，由 flush() 绘制）。
+ * “Next” 预览仍然交给 NextBrickRenderer。
+ *
+ * 用 -Dtetris.renderer=canvas 选择（见 ViewConfig）。
+ */
+public class CanvasBoardView implements BoardRenderer {
+
+    private static final Paint GHOST_FILL = Color.color(1.0, 1.0, 1.0, 0.28);
+
+    private final GridPane gamePanel;
+    private final GridPane brickPanel;
+    private final GridPane nextBrickPanel;
+
+    private final int brickSize;
+    private final int hiddenRows;
+    private final int brickCornerArc;
+    private final Paint[] brickColors;
+
+    private final NextBrickRenderer nextBrickRenderer;
+
+    private Canvas canvas;
+    private GraphicsContext gc;
+
+    // one pre-rendered cell per colour id, plus a fallback for unknown ids
+    private Image[] sprites;
+    private Image fallbackSprite;
+
+    // distance between two cells (cell size + grid gap)
+    private double cellWidth;
+    private double cellHeight;
+
+    // background data and the brick currently shown
+    private int[][] boardState;
+    private ViewData brick;
+
+    // something changed since the last redraw; drawn once in flush()
+    private boolean dirty;
+
+    // explosion overlay state, driven by the explosion timeline
+    private List<Point> explosionCells = List.of();
+    private double explosionOpacity;
+    private double shakeOffset;
+
+    public CanvasBoardView(GridPane gamePanel,
+                           GridPane brickPanel,
+                           GridPane nextBrickPanel,
+                           int brickSize,
+                           int previewBrickSize,
+                           int hiddenRows,
+                           int brickCornerArc,
+                           Paint[] brickColors) {
+
+        this.gamePanel = gamePanel;
+        this.brickPanel = brickPanel;
+        this.nextBrickPanel = nextBrickPanel;
+
+        this.brickSize = brickSize;
+        this.hiddenRows = hiddenRows;
+        this.brickCornerArc = brickCornerArc;
+        this.brickColors = brickColors;
+
+        this.nextBrickRenderer = new NextBrickRenderer(previewBrickSize, brickColors);
+    }
+
+    /* ================= init game view ================= */
+
+    /**
+     * Called once when game starts.
+     * Creates the canvas and the sprites, then draws the first frame.
+     */
+    @Override
+    public void initGameView(int[][] boardMatrix, ViewData brick) {
+
+        boardState = MatrixOperations.copy(boardMatrix);
+        this.brick = brick;
+
+        int rows = boardMatrix.length;
+        int cols = boardMatrix[0].length;
+
+        cellWidth = brickSize + gamePanel.getHgap();
+        cellHeight = brickSize + gamePanel.getVgap();
+
+        canvas = new Canvas(
+                cols * cellWidth - gamePanel.getHgap(),
+                (rows - hiddenRows) * cellHeight - gamePanel.getVgap()
+        );
+        gc = canvas.getGraphicsContext2D();
+        gamePanel.add(canvas, 0, 0);
+
+        // the falling brick is drawn on the canvas, the 4x4 panel is not used
+        brickPanel.setVisible(false);
+
+        createSprites();
+        renderNextBrick(brick);
+        redraw();
+    }
+
+    /* ================= refresh ================= */
+
+    @Override
+    public void refreshBrick(ViewData brick) {
+        // same version = same frame, nothing to draw
+        if (this.brick != null && brick.getVersion() == this.brick.getVersion()) {
+            return;
+        }
+        this.brick = brick;
+        dirty = true;
+    }
+
+    @Override
+    public void refreshBackground(int[][] board) {
+        for (int i = 0; i < board.length; i++) {
+            System.arraycopy(board[i], 0, boardState[i], 0, board[i].length);
+        }
+        dirty = true;
+    }
+
+    @Override
+    public void renderNextBrick(ViewData viewData) {
+        nextBrickRenderer.renderNextBrick(viewData, nextBrickPanel);
+    }
+
+    @Override
+    public void flush() {
+        if (dirty) {
+            redraw();
+        }
+    }
+
+    /* ================= drawing ================= */
+
+    /**
+     * Draws the whole frame: background (shaken during an explosion),
+     * explosion overlay, ghost and the falling brick.
+     */
+    private void redraw() {
+        if (gc == null) return;
+        dirty = false;
+
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        // background
+        for (int y = hiddenRows; y < boardState.length; y++) {
+            for (int x = 0; x < boardState[y].length; x++) {
+                int id = boardState[y][x];
+                if (id != 0) {
+                    gc.drawImage(getSprite(id), cellX(x) + shakeOffset, cellY(y));
+                }
+            }
+        }
+
+        // explosion cells (black, fading out)
+        if (explosionOpacity > 0) {
+            gc.setGlobalAlpha(explosionOpacity);
+            gc.setFill(Color.BLACK);
+            for (Point p : explosionCells) {
+                if (isVisible(p.x, p.y)) {
+                    gc.fillRoundRect(cellX(p.x) + shakeOffset, cellY(p.y),
+                            brickSize, brickSize, brickCornerArc, brickCornerArc);
+                }
+            }
+            gc.setGlobalAlpha(1.0);
+        }
+
+        if (brick == null) return;
+
+        BrickShape shape = brick.getBrickShape();
+        int bx = brick.getxPosition();
+
+        // ghost
+        gc.setFill(GHOST_FILL);
+        for (int i = 0; i < shape.getCellCount(); i++) {
+            int x = bx + shape.getCellX(i);
+            int y = brick.getGhostYPosition() + shape.getCellY(i);
+            if (isVisible(x, y)) {
+                gc.fillRoundRect(cellX(x), cellY(y),
+                        brickSize, brickSize, brickCornerArc, brickCornerArc);
+            }
+        }
+
+        // falling brick (never shaken)
+        Image sprite = getSprite(shape.getId());
+        for (int i = 0; i < shape.getCellCount(); i++) {
+            int x = bx + shape.getCellX(i);
+            int y = brick.getyPosition() + shape.getCellY(i);
+            if (isVisible(x, y)) {
+                gc.drawImage(sprite, cellX(x), cellY(y));
+            }
+        }
+    }
+
+    private void createSprites() {
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+
+        sprites = new Image[brickColors.length];
+        for (int id = 0; id < brickColors.length; id++) {
+            sprites[id] = renderSprite(brickColors[id], params);
+        }
+        fallbackSprite = renderSprite(Color.WHITE, params);
+    }
+
+    private Image renderSprite(Paint fill, SnapshotParameters params) {
+        Canvas sprite = new Canvas(brickSize, brickSize);
+        GraphicsContext g = sprite.getGraphicsContext2D();
+        g.setFill(fill);
+        g.fillRoundRect(0, 0, brickSize, brickSize, brickCornerArc, brickCornerArc);
+        return sprite.snapshot(params, null);
+    }
+
+    private Image getSprite(int id) {
+        if (id >= 0 && id < sprites.length) {
+            return sprites[id];
+        }
+        return fallbackSprite;
+    }
+
+    private boolean isVisible(int x, int y) {
+        return y >= hiddenRows && y < boardState.length && x >= 0 && x < boardState[0].length;
+    }
+
+    private double cellX(int x) {
+        return x * cellWidth;
+    }
+
+    private double cellY(int y) {
+        return (y - hiddenRows) * cellHeight;
+    }
+
+    /* ================= explosion animation ================= */
+
+    /**
+     * Same timing as BoardView:
+     * - explosion cells turn black
+     * - background shakes a bit (the falling brick does not)
+     * - black cells fade out
+     */
+    @Override
+    public void playExplosionAnimation(List<Point> cells) {
+
+        if (cells == null || cells.isEmpty() || gc == null) return;
+
+        final double shakeAmount = 4;
+        final List<Point> affected = List.copyOf(cells);
+
+        Timeline timeline = new Timeline(
+
+                // 1) paint explosion cells black + small shake
+                new KeyFrame(Duration.ZERO, e -> {
+                    explosionCells = affected;
+                    explosionOpacity = 1.0;
+                    shakeOffset = -shakeAmount;
+                    redraw();
+                }),
+
+                // 2) move to the other side
+                new KeyFrame(Duration.millis(60), e -> {
+                    shakeOffset = shakeAmount;
+                    redraw();
+                }),
+
+                // 3) back to center (stop shaking)
+                new KeyFrame(Duration.millis(120), e -> {
+                    shakeOffset = 0;
+                    redraw();
+                }),
+
+                // 4) start fade out
+                new KeyFrame(Duration.millis(200), e -> {
+                    explosionOpacity = 0.5;
+                    redraw();
+                }),
+
+                // 5) fully fade out
+                new KeyFrame(Duration.millis(350), e -> {
+                    explosionOpacity = 0.0;
+                    redraw();
+                }),
+
+                // 6) cleanup
+                new KeyFrame(Duration.millis(500), e -> {
+                    explosionCells = List.of();
+                    explosionOpacity = 0.0;
+                    shakeOffset = 0;
+                    redraw();
+                })
+        );
+
+        timeline.setCycleCount(1);
+        timeline.play();
+    }
+}
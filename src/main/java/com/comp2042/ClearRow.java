@@ -1,22 +1,31 @@
 // 清行结果类：用来记录一次清行之后产生的各种数据。
-// 包括清掉了多少行、更新后的棋盘矩阵、以及应该加多少分。
-// 只是一个简单的数据包，不负责具体的清行逻辑。
+// 包括清掉了多少行、被清掉的是哪几行（位图）、以及应该加多少分。
+// BoardState 会反复复用同一个 ClearRow 对象，下一次清行会覆盖上一次的结果，
+// 所以调用方如果要长期保存，需要自己 copy()。
 //
 // Result object for a row-clearing operation.
-// Stores how many lines were removed, the updated board matrix,
-// and the score bonus gained. Acts as a simple data container.
+// Stores how many lines were removed, which rows were removed (as a bit mask,
+// bit y = row y) and the score bonus gained. BoardState reuses a single
+// instance, so the next clear overwrites it; call copy() to keep a result.
 
 package com.comp2042;
 
 public final class ClearRow {
 
-    private final int linesRemoved;
-    private final int[][] newMatrix;
-    private final int scoreBonus;
+    private int linesRemoved;
+    private int clearedRowMask;
+    private int scoreBonus;
 
-    public ClearRow(int linesRemoved, int[][] newMatrix, int scoreBonus) {
+    public ClearRow() {
+    }
+
+    public ClearRow(int linesRemoved, int clearedRowMask, int scoreBonus) {
+        set(linesRemoved, clearedRowMask, scoreBonus);
+    }
+
+    void set(int linesRemoved, int clearedRowMask, int scoreBonus) {
         this.linesRemoved = linesRemoved;
-        this.newMatrix = newMatrix;
+        this.clearedRowMask = clearedRowMask;
         this.scoreBonus = scoreBonus;
     }
 
@@ -24,11 +33,21 @@ public final class ClearRow {
         return linesRemoved;
     }
 
-    public int[][] getNewMatrix() {
-        return MatrixOperations.copy(newMatrix);
+    /** 被清除的行：第 y 位为 1 表示第 y 行（清除前的行号）被消掉 */
+    public int getClearedRowMask() {
+        return clearedRowMask;
+    }
+
+    public boolean isRowCleared(int row) {
+        return row >= 0 && row < Integer.SIZE && (clearedRowMask & (1 << row)) != 0;
     }
 
     public int getScoreBonus() {
         return scoreBonus;
     }
+
+    /** 复制一份独立的结果（不会被后续清行覆盖） */
+    public ClearRow copy() {
+        return new ClearRow(linesRemoved, clearedRowMask, scoreBonus);
+    }
 }
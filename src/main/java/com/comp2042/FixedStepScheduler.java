@@ -0,0 +1,90 @@
+package com.comp2042;
+
+/**
+ * 固定步长调度器：把真实经过的时间（nanoTime）累加起来，换算成要执行的逻辑 tick 数。
+ * 逻辑固定以 ticksPerSecond 运行，和渲染帧率无关；
+ * 渲染循环每一帧调用一次 advance(now)，执行返回的 tick 数，然后画一次。
+ *
+ * 累加器用 “纳秒 × ticksPerSecond” 为单位，整数运算没有舍入误差，
+ * 所以 60 tick/s 这种除不尽的频率也不会慢慢漂移。
+ *
+ * 如果一帧里积压了太多 tick（窗口被拖动、机器卡顿等），最多执行 maxTicksPerFrame 个，
+ * 多出来的直接丢弃，避免为了追赶进度而越卡越慢。
+ *
+ * Fixed-timestep scheduler: turns elapsed nanoTime into a whole number of
+ * logic ticks per frame. Pure Java, so it can also drive headless runs.
+ */
+public final class FixedStepScheduler {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final int ticksPerSecond;
+    private final int maxTicksPerFrame;
+
+    /** 上一次 advance 的时间，-1 表示还没开始（或刚 reset） */
+    private long lastNanos = -1;
+
+    /** 还没执行的时间，单位：纳秒 × ticksPerSecond */
+    private long accumulator;
+
+    private long totalTicks;
+
+    public FixedStepScheduler(int ticksPerSecond, int maxTicksPerFrame) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("ticksPerSecond must be positive: " + ticksPerSecond);
+        }
+        if (maxTicksPerFrame <= 0) {
+            throw new IllegalArgumentException("maxTicksPerFrame must be positive: " + maxTicksPerFrame);
+        }
+        this.ticksPerSecond = ticksPerSecond;
+        this.maxTicksPerFrame = maxTicksPerFrame;
+    }
+
+    /**
+     * 根据当前时间返回这一帧应该执行多少个逻辑 tick。
+     * 第一次调用（或 reset 之后）只记录起点，返回 0。
+     */
+    public int advance(long nowNanos) {
+        if (lastNanos < 0) {
+            lastNanos = nowNanos;
+            return 0;
+        }
+
+        long elapsed = nowNanos - lastNanos;
+        lastNanos = nowNanos;
+        if (elapsed <= 0) {
+            return 0;
+        }
+
+        // 先截断再相乘，防止长时间挂起后溢出
+        long maxElapsed = (long) (maxTicksPerFrame + 1) * NANOS_PER_SECOND / ticksPerSecond;
+        accumulator += Math.min(elapsed, maxElapsed) * ticksPerSecond;
+
+        long ticks = accumulator / NANOS_PER_SECOND;
+        if (ticks > maxTicksPerFrame) {
+            // 积压太多：丢掉多余的时间
+            ticks = maxTicksPerFrame;
+            accumulator = 0;
+        } else {
+            accumulator -= ticks * NANOS_PER_SECOND;
+        }
+
+        totalTicks += ticks;
+        return (int) ticks;
+    }
+
+    /** 暂停 / 新游戏后调用：下一次 advance 重新计时，中间的时间不补 */
+    public void reset() {
+        lastNanos = -1;
+        accumulator = 0;
+    }
+
+    public int getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    /** 开始以来一共执行了多少个 tick */
+    public long getTotalTicks() {
+        return totalTicks;
+    }
+}
@@ -0,0 +1,104 @@
+// 一帧的不可变快照：逻辑线程每次状态变化后生成一个，通过 AtomicReference 交给 FX 线程渲染。
+// 棋盘矩阵只在棋盘变化时复制一次，没变化的快照共用同一个数组，渲染端只读不改。
+// 一次性的事件（清行加分、炸弹爆炸）用递增的序号表示，
+// 渲染端比较序号就知道两帧之间有没有发生过，不会因为跳帧而漏掉。
+//
+// Immutable frame published by the logic thread and rendered by the FX pulse.
+// The board array is shared between frames until the board changes and must
+// never be modified. One-shot events carry a sequence number, so the renderer
+// notices them even when it skips frames.
+
+package com.comp2042;
+
+import java.awt.Point;
+import java.util.List;
+
+public final class FrameSnapshot {
+
+    private final long frameId;
+    private final ViewData viewData;
+    private final int[][] board;
+
+    private final int score;
+    private final int lines;
+    private final int level;
+    private final int highScore;
+    private final boolean gameOver;
+
+    private final int clearSequence;
+    private final int lastClearBonus;
+
+    private final int explosionSequence;
+    private final List<Point> explosionCells;
+
+    FrameSnapshot(long frameId, ViewData viewData, int[][] board,
+                  int score, int lines, int level, int highScore, boolean gameOver,
+                  int clearSequence, int lastClearBonus,
+                  int explosionSequence, List<Point> explosionCells) {
+        this.frameId = frameId;
+        this.viewData = viewData;
+        this.board = board;
+        this.score = score;
+        this.lines = lines;
+        this.level = level;
+        this.highScore = highScore;
+        this.gameOver = gameOver;
+        this.clearSequence = clearSequence;
+        this.lastClearBonus = lastClearBonus;
+        this.explosionSequence = explosionSequence;
+        this.explosionCells = explosionCells;
+    }
+
+    public long getFrameId() {
+        return frameId;
+    }
+
+    public ViewData getViewData() {
+        return viewData;
+    }
+
+    /** 背景棋盘（只读，不同帧之间可能是同一个数组） */
+    public int[][] getBoard() {
+        return board;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLines() {
+        return lines;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getHighScore() {
+        return highScore;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /** 到目前为止一共发生过几次（有效的）清行 */
+    public int getClearSequence() {
+        return clearSequence;
+    }
+
+    /** 最近一次清行的加分 */
+    public int getLastClearBonus() {
+        return lastClearBonus;
+    }
+
+    /** 到目前为止一共发生过几次爆炸 */
+    public int getExplosionSequence() {
+        return explosionSequence;
+    }
+
+    /** 最近一次爆炸清掉的格子（只读） */
+    public List<Point> getExplosionCells() {
+        return explosionCells;
+    }
+}
@@ -1,155 +1,127 @@
 package com.comp2042;
 
-import java.awt.Point;
-import java.util.List;
-
-// GameController: handles all core game logic and talks to the GUI.
-public class GameController implements InputEventListener {
-
-    private final Board board;
-    private final GuiController viewGuiController;
-
-    // Default constructor: normal mode (no bombs)
-    public GameController(GuiController c) {
-        this(c, false);
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+// GameController: wires the headless GameEngine, the game logic thread and the GUI.
+// Input goes GUI → GameLogicThread (queue), frames come back GameLogicThread → GUI.
+public class GameController implements GameEventListener {
+
+    public static final String DAS_PROPERTY = "tetris.das";
+    public static final String ARR_PROPERTY = "tetris.arr";
+    private static final int DEFAULT_DAS_MS = 167;
+    private static final int DEFAULT_ARR_MS = 33;
+
+    // Directory for game replays, -Dtetris.replays=<dir>; "off" disables recording
+    public static final String REPLAY_PROPERTY = "tetris.replays";
+    private static final String DEFAULT_REPLAY_DIR = "replays";
+
+    // -Dtetris.bot=true: the placement-search bot plays this game; "strong": the beam-search planner
+    public static final String BOT_PROPERTY = "tetris.bot";
+    // beam width and planned pieces of the strong bot, -Dtetris.bot.beam=<K> -Dtetris.bot.preview=<N>
+    // (N is capped at the bricks the player can see: the current one and the next one)
+    public static final String BOT_BEAM_PROPERTY = "tetris.bot.beam";
+    public static final String BOT_PREVIEW_PROPERTY = "tetris.bot.preview";
+    // transposition table of the placement-search bot, -Dtetris.bot.tt=<buckets> (32 bytes each); 0 = none
+    public static final String BOT_TT_PROPERTY = "tetris.bot.tt";
+    // pause between two bot moves in ms, -Dtetris.bot.delay=<ms>
+    public static final String BOT_DELAY_PROPERTY = "tetris.bot.delay";
+    private static final int DEFAULT_BOT_DELAY_MS = 60;
+
+    // Replay to watch at startup, -Dtetris.replay=<file>; the game stays paused meanwhile
+    public static final String WATCH_REPLAY_PROPERTY = "tetris.replay";
+
+    private final GameEngine engine;
+    private final GameLogicThread logicThread;
+
+    // Starts a game in normal mode (no bombs)
+    public static GameController start(GuiController c) {
+        return start(c, false);
     }
 
-    // Constructor with bomb mode support
-    public GameController(GuiController c, boolean bombMode) {
-        this.viewGuiController = c;
-
-        // 25 rows × 10 columns, third argument: enable bomb mode or not
-        this.board = new SimpleBoard(25, 10, bombMode);
-
-        // Load previous high score
-        board.getScore().loadHighScore();
-
-        // Create the first falling brick
-        board.createNewBrick();
-
-        // Connect to GUI
-        viewGuiController.setEventListener(this);
-        viewGuiController.initGameView(board.getBoardMatrix(), board.getViewData());
-
-        // Bind HUD labels
-        viewGuiController.bindScore(board.getScore().scoreProperty());
-        viewGuiController.bindLines(board.getScore().linesProperty());
-        viewGuiController.bindHighScore(board.getScore().highScoreProperty());
+    // Starts a game, with bomb mode or not
+    public static GameController start(GuiController c, boolean bombMode) {
+        GameController controller = new GameController(c, bombMode);
+        // register only once the controller is fully built; events arrive on the logic thread
+        controller.engine.addListener(controller);
+        controller.logicThread.start();
+        return controller;
     }
 
-    /**
-     * Handles DOWN and HARD_DROP events.
-     */
-    @Override
-    public DownData onDownEvent(MoveEvent event) {
+    private GameController(GuiController c, boolean bombMode) {
 
-        ClearRow clearRow = null;
+        // 25 rows × 10 columns, bomb mode or not
+        this.engine = new GameEngine(bombMode);
 
-        // ===== HARD DROP (space key) =====
-        if (event.getEventType() == EventType.HARD_DROP) {
-            int steps = 0;
+        // Load previous high score (file I/O stays outside the engine)
+        engine.getScore().loadHighScore();
 
-            // Move down until we hit something
-            while (board.moveBrickDown()) {
-                steps++;
-            }
+        // Auto shift timing, e.g. -Dtetris.das=100 -Dtetris.arr=0 (milliseconds)
+        engine.setAutoShift(
+                msToTicks(Integer.getInteger(DAS_PROPERTY, DEFAULT_DAS_MS)),
+                msToTicks(Integer.getInteger(ARR_PROPERTY, DEFAULT_ARR_MS)));
 
-            // Brick has landed → handle merge, clear rows, new brick, etc.
-            clearRow = handleBrickLanded();
+        // Create the first falling brick
+        engine.start();
 
-            // Extra score for hard drop distance
-            if (steps > 0) {
-                board.getScore().add(steps);
-            }
+        // From here on the engine is only touched by the logic thread
+        this.logicThread = new GameLogicThread(engine);
 
-            return new DownData(clearRow, board.getViewData());
+        String replayDir = System.getProperty(REPLAY_PROPERTY, DEFAULT_REPLAY_DIR);
+        if (!replayDir.isBlank() && !"off".equalsIgnoreCase(replayDir)) {
+            logicThread.setReplayDirectory(Path.of(replayDir));
         }
 
-        // ===== Normal one-step DOWN =====
-        boolean canMove = board.moveBrickDown();
-        if (!canMove) {
-            // Brick landed, handle it
-            clearRow = handleBrickLanded();
-        } else {
-            // Small score for manual soft drop
-            if (event.getEventSource() == EventSource.USER) {
-                board.getScore().add(1);
-            }
-        }
-
-        return new DownData(clearRow, board.getViewData());
-    }
-
-    /**
-     * Called whenever the current brick can no longer move down.
-     *
-     * Steps:
-     *  1) Merge brick into the background (may also trigger bomb explosion)
-     *  2) Clear full rows and update score / lines
-     *  3) If needed, play bomb explosion animation
-     *  4) Spawn a new brick; if that fails, the game is over
-     *  5) Refresh the background board in the GUI
-     *
-     * Returns info about cleared rows (can be null or 0 lines).
-     */
-    private ClearRow handleBrickLanded() {
-
-        // Merge brick into the background.
-        // In bomb mode this may also explode and update the matrix.
-        board.mergeBrickToBackground();
-
-        // Clear full rows and update score
-        ClearRow clearRow = board.clearRows();
-        if (clearRow.getLinesRemoved() > 0) {
-            Score score = board.getScore();
-            score.add(clearRow.getScoreBonus());
-            score.addLines(clearRow.getLinesRemoved());
+        // Connect to GUI
+        c.setGameLogic(logicThread);
+        c.initGameView(engine.getBoardMatrix(), engine.getViewData());
+
+        PlacementPolicy botPolicy = createBotPolicy(System.getProperty(BOT_PROPERTY, ""));
+        if (botPolicy != null) {
+            // the bot listens on the logic thread and plays through the GUI's input path
+            BotPlayer bot = new BotPlayer(engine, botPolicy, c.createBotInput());
+            bot.setMoveDelayMillis(Math.max(0, Integer.getInteger(BOT_DELAY_PROPERTY, DEFAULT_BOT_DELAY_MS)));
+            c.setBotPlayer(bot);
+            bot.start();
         }
 
-        // ➤ If we are in bomb mode and there was an explosion,
-        //    SimpleBoard stored the affected cells in lastExplosionCells.
-        if (board instanceof SimpleBoard) {
-            List<Point> explosionCells = ((SimpleBoard) board).getLastExplosionCells();
-            if (explosionCells != null && !explosionCells.isEmpty()) {
-                // Ask GUI to play the explosion animation (black + shake)
-                viewGuiController.playExplosionAnimation(explosionCells);
+        String watch = System.getProperty(WATCH_REPLAY_PROPERTY);
+        if (watch != null && !watch.isBlank()) {
+            try {
+                c.attachReplay(ReplayPlayer.load(Path.of(watch)));
+            } catch (IOException | IllegalArgumentException ex) {
+                // unreadable replay: tell the player and just play normally
+                c.showNotification("Replay not loaded");
             }
         }
-
-        // Try to create a new brick; if it collides immediately, game over
-        if (board.createNewBrick()) {
-            board.getScore().saveHighScore();
-            viewGuiController.gameOver();
-        }
-
-        // Finally refresh the background grid
-        viewGuiController.refreshGameBackground(board.getBoardMatrix());
-
-        return clearRow;
     }
 
-    @Override
-    public ViewData onLeftEvent(MoveEvent event) {
-        board.moveBrickLeft();
-        return board.getViewData();
-    }
-
-    @Override
-    public ViewData onRightEvent(MoveEvent event) {
-        board.moveBrickRight();
-        return board.getViewData();
+    // "true" → PlacementBot, "strong" → BeamSearchPlanner, anything else → no bot
+    private static PlacementPolicy createBotPolicy(String mode) {
+        if ("strong".equalsIgnoreCase(mode)) {
+            return new BeamSearchPlanner(BoardEvaluator.DEFAULT,
+                    Math.max(1, Integer.getInteger(BOT_BEAM_PROPERTY, BeamSearchPlanner.DEFAULT_BEAM_WIDTH)),
+                    Math.min(PlacementBot.VISIBLE_BRICKS,
+                            Math.max(1, Integer.getInteger(BOT_PREVIEW_PROPERTY, BeamSearchPlanner.DEFAULT_PIECES))),
+                    ForkJoinPool.commonPool());
+        }
+        if (!Boolean.parseBoolean(mode)) {
+            return null;
+        }
+        int buckets = Integer.getInteger(BOT_TT_PROPERTY, 0);
+        return new PlacementBot(BoardEvaluator.DEFAULT, PlacementBot.VISIBLE_BRICKS, ForkJoinPool.commonPool(),
+                buckets > 0 ? new TranspositionTable(buckets) : null);
     }
 
-    @Override
-    public ViewData onRotateEvent(MoveEvent event) {
-        board.rotateLeftBrick();
-        return board.getViewData();
+    // rounded to the nearest tick, never negative
+    private static int msToTicks(int ms) {
+        return Math.max(0, Math.round(ms * GameEngine.TICKS_PER_SECOND / 1000f));
     }
 
+    /** Called on the logic thread. */
     @Override
-    public void createNewGame() {
-        board.newGame();
-        viewGuiController.refreshGameBackground(board.getBoardMatrix());
-        // Do NOT reset high score here
+    public void onGameOver() {
+        engine.getScore().saveHighScore();
     }
-}
\ No newline at end of file
+}
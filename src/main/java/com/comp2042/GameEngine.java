@@ -0,0 +1,549 @@
+package com.comp2042;
+
+import com.comp2042.logic.bricks.SplitMix64;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 纯 Java 的游戏引擎（GameEngine）：
+ * - 持有 Board（以及通过它持有的 Score 和方块生成器）
+ * - 通过 {@link #step} 一次执行一个动作
+ *
+ * 不依赖 JavaFX，所以可以在无界面的机器上跑（模拟、机器人、回放）。
+ * 想对游戏做出反应的一方（通常是 GUI）通过 {@link GameEventListener} 订阅。
+ *
+ * 时间以逻辑 tick 计（每秒 {@link #TICKS_PER_SECOND} 个）。
+ * 每次 {@link #tick()} 先处理按住的键，再处理重力；下落速度取决于等级。
+ *
+ * 按住的键：{@link #keyDown} / {@link #keyUp} 只记录按键状态，tick 里对
+ * LEFT / RIGHT 做延迟自动移动（DAS）和自动重复（ARR），按住 DOWN 时重复软降。
+ * ARR 为 0 时一个 tick 内直接移到墙边。系统的按键重复会被忽略。
+ */
+public class GameEngine {
+
+    /** GUI 循环和模拟共用的逻辑频率 */
+    public static final int TICKS_PER_SECOND = 60;
+
+    /** 每消这么多行升一级 */
+    public static final int LINES_PER_LEVEL = 5;
+
+    /*
+     * 重力：1 级每 400 ms 下落一格，每升一级快 20%，
+     * 即每 2000 / (5 + levelIndex) ms 一格。
+     * 每个 tick 往累加器里加 (5 + levelIndex)，每满 GRAVITY_THRESHOLD 落一格，
+     * 整数运算没有误差，高等级时一个 tick 可以落好几格。
+     */
+    private static final int GRAVITY_BASE = 5;
+    private static final long GRAVITY_THRESHOLD = 2L * TICKS_PER_SECOND;
+
+    /** 默认自动移动：延迟 10 tick（约 167 ms），之后每 2 tick 一格 */
+    public static final int DEFAULT_DAS_TICKS = 10;
+    public static final int DEFAULT_ARR_TICKS = 2;
+
+    /** 按住 DOWN 时每隔这么多 tick 软降一格 */
+    private static final int SOFT_DROP_TICKS = 2;
+
+    private static final MoveEvent GRAVITY = new MoveEvent(EventType.DOWN, EventSource.THREAD);
+    private static final MoveEvent SOFT_DROP = new MoveEvent(EventType.DOWN, EventSource.USER);
+
+    public static final int ROWS = 25;
+    public static final int COLS = 10;
+
+    private final Board board;
+    private final List<GameEventListener> listeners = new ArrayList<>();
+
+    // how the bricks of the current game are generated (see getSeed)
+    private final boolean seeded;
+    private final boolean bombMode;
+    private final boolean sevenBag;
+    private long seed;
+
+    private boolean started;
+    private boolean gameOver;
+
+    private long tickCount;
+    // 当前活动方块的编号，见 getPieceId()
+    private long pieceId;
+    private long gravityAccumulator;
+
+    private final KeyState keys = new KeyState();
+    private int dasTicks = DEFAULT_DAS_TICKS;
+    private int arrTicks = DEFAULT_ARR_TICKS;
+
+    // last values sent with onScoreChanged
+    private int publishedScore = -1;
+    private int publishedLines = -1;
+    private int publishedHighScore = -1;
+
+    // Default: 25 rows × 10 columns, random seed
+    public GameEngine(boolean bombMode) {
+        this(bombMode, SplitMix64.randomSeed(), false);
+    }
+
+    /**
+     * 可复现的游戏：同一个种子（加上同样的输入）总是得到同样的方块序列。
+     * sevenBag 为 true 时 7 种方块按打乱的袋子发放。
+     */
+    public GameEngine(boolean bombMode, long seed, boolean sevenBag) {
+        this.board = new SimpleBoard(ROWS, COLS, bombMode,
+                SimpleBoard.createGenerator(bombMode, seed, sevenBag));
+        this.seeded = true;
+        this.bombMode = bombMode;
+        this.sevenBag = sevenBag;
+        this.seed = seed;
+    }
+
+    /** 在自定义棋盘上运行；引擎不知道它的方块序列 */
+    public GameEngine(Board board) {
+        this.board = board;
+        this.seeded = false;
+        this.bombMode = false;
+        this.sevenBag = false;
+    }
+
+    public void addListener(GameEventListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(GameEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 生成第一个方块。在第一次 step 之前调用一次。
+     */
+    public void start() {
+        if (started) return;
+        started = true;
+
+        pieceId++;
+        gameOver = board.createNewBrick();
+        publishScore();
+        if (gameOver) {
+            fireGameOver();
+        }
+    }
+
+    /**
+     * 执行来自某个来源的一个动作。
+     * DOWN / HARD_DROP 可能让方块落地（消行、生成下一个方块）；
+     * 游戏结束后所有动作都被忽略；针对别的方块的动作
+     * （{@link MoveEvent#getPieceId()} 不是当前方块）也被忽略。
+     *
+     * 返回消行结果（没有落地时为 null）和新的视图数据。
+     */
+    public DownData step(MoveEvent event) {
+        if (!started) {
+            start();
+        }
+        if (gameOver || !isForCurrentPiece(event.getPieceId())) {
+            return new DownData(null, board.getViewData());
+        }
+
+        ClearRow clearRow = apply(event);
+        publishScore();
+        return new DownData(clearRow, board.getViewData());
+    }
+
+    /** 用户动作的简写 */
+    public DownData step(EventType action) {
+        return step(new MoveEvent(action, EventSource.USER));
+    }
+
+    /**
+     * 按下一个键：动作立即执行一次，按住时由 {@link #tick()} 重复。
+     * 已经按下的键再次按下（系统按键重复）会被忽略。
+     */
+    public DownData keyDown(EventType key) {
+        if (!started) {
+            start();
+        }
+        if (gameOver || !keys.press(key, tickCount)) {
+            return null;
+        }
+
+        ClearRow clearRow = apply(key == EventType.DOWN ? SOFT_DROP : new MoveEvent(key, EventSource.USER));
+        if (clearRow != null) {
+            gravityAccumulator = 0;
+        }
+        publishScore();
+        return new DownData(clearRow, board.getViewData());
+    }
+
+    /** 松开一个键 */
+    public void keyUp(EventType key) {
+        keys.release(key, tickCount);
+    }
+
+    /**
+     * 设置自动移动的时间（单位 tick）。
+     * das：方向键按住多久后开始重复；
+     * arr：两次重复之间的间隔，0 = 直接到墙边。
+     */
+    public void setAutoShift(int dasTicks, int arrTicks) {
+        if (dasTicks < 0 || arrTicks < 0) {
+            throw new IllegalArgumentException("DAS and ARR must not be negative: " + dasTicks + ", " + arrTicks);
+        }
+        this.dasTicks = dasTicks;
+        this.arrTicks = arrTicks;
+    }
+
+    /**
+     * 推进一个逻辑 tick：先处理按住的键，再处理重力。
+     *
+     * 方块没动时返回 null，否则返回新的视图数据，
+     * 如果这个 tick 里方块落地了，还带上消行结果。
+     */
+    public DownData tick() {
+        if (!started) {
+            start();
+        }
+        if (gameOver) {
+            return null;
+        }
+
+        tickCount++;
+        boolean changed = false;
+        ClearRow clearRow = null;
+
+        // DAS / ARR for the held direction
+        EventType direction = keys.getShiftDirection();
+        if (direction != null) {
+            long held = tickCount - keys.getShiftStartTick();
+            if (held >= dasTicks) {
+                if (arrTicks == 0) {
+                    while (shift(direction)) {
+                        changed = true;
+                    }
+                } else if ((held - dasTicks) % arrTicks == 0) {
+                    changed |= shift(direction);
+                }
+            }
+        }
+
+        // repeated soft drop while DOWN is held
+        if (keys.isDown(EventType.DOWN)) {
+            long held = tickCount - keys.getPressTick(EventType.DOWN);
+            if (held > 0 && held % SOFT_DROP_TICKS == 0) {
+                clearRow = apply(SOFT_DROP);
+                changed = true;
+                if (clearRow != null) {
+                    gravityAccumulator = 0;
+                }
+            }
+        }
+
+        // gravity
+        gravityAccumulator += GRAVITY_BASE + getLevel() - 1;
+        while (!gameOver && gravityAccumulator >= GRAVITY_THRESHOLD) {
+            gravityAccumulator -= GRAVITY_THRESHOLD;
+            changed = true;
+            ClearRow landed = apply(GRAVITY);
+            if (landed != null) {
+                // landed: the new brick starts with fresh gravity
+                clearRow = landed;
+                gravityAccumulator = 0;
+                break;
+            }
+        }
+
+        if (!changed) {
+            return null;
+        }
+        publishScore();
+        return new DownData(clearRow, board.getViewData());
+    }
+
+    /** 方块左移 / 右移一格；被挡住时返回 false */
+    private boolean shift(EventType direction) {
+        return direction == EventType.LEFT ? board.moveBrickLeft() : board.moveBrickRight();
+    }
+
+    /** 执行一个动作；方块落地时返回消行结果，否则返回 null */
+    private ClearRow apply(MoveEvent event) {
+
+        ClearRow clearRow = null;
+
+        switch (event.getEventType()) {
+            case LEFT:
+                board.moveBrickLeft();
+                break;
+
+            case RIGHT:
+                board.moveBrickRight();
+                break;
+
+            case ROTATE:
+                board.rotateLeftBrick();
+                break;
+
+            case HARD_DROP: {
+                // Drop straight to the landing row in one call
+                int steps = board.hardDrop();
+
+                // Brick has landed → handle merge, clear rows, new brick, etc.
+                clearRow = handleBrickLanded();
+
+                // Extra score for hard drop distance
+                if (steps > 0) {
+                    board.getScore().add(steps);
+                }
+                break;
+            }
+
+            case DOWN:
+            default:
+                if (!board.moveBrickDown()) {
+                    clearRow = handleBrickLanded();
+                } else if (event.getEventSource() == EventSource.USER) {
+                    // Small score for manual soft drop
+                    board.getScore().add(1);
+                }
+                break;
+        }
+        return clearRow;
+    }
+
+    /**
+     * 当前方块无法再下落时调用。
+     *
+     * 步骤：
+     *  1) 把方块合并进背景（炸弹模式下可能触发爆炸）
+     *  2) 消除满行，更新分数 / 行数
+     *  3) 如果有爆炸，通知监听者
+     *  4) 生成新方块；失败则游戏结束
+     *  5) 通知新的背景
+     */
+    private ClearRow handleBrickLanded() {
+
+        // In bomb mode this may also explode and update the matrix.
+        board.mergeBrickToBackground();
+
+        ClearRow clearRow = board.clearRows();
+        if (clearRow.getLinesRemoved() > 0) {
+            Score score = board.getScore();
+            score.add(clearRow.getScoreBonus());
+            score.addLines(clearRow.getLinesRemoved());
+            for (GameEventListener l : listeners) {
+                l.onRowsCleared(clearRow);
+            }
+        }
+
+        // SimpleBoard stores the cells hit by the last bomb
+        if (board instanceof SimpleBoard) {
+            List<Point> explosionCells = ((SimpleBoard) board).getLastExplosionCells();
+            if (explosionCells != null && !explosionCells.isEmpty()) {
+                for (GameEventListener l : listeners) {
+                    l.onExplosion(explosionCells);
+                }
+            }
+        }
+
+        pieceId++;
+        if (board.createNewBrick()) {
+            gameOver = true;
+            fireGameOver();
+        }
+
+        fireBoardChanged();
+        return clearRow;
+    }
+
+    /**
+     * 在同一个引擎上重新开始。最高分保留。
+     */
+    public void newGame() {
+        if (seeded) {
+            newGame(SplitMix64.randomSeed());
+        } else {
+            board.newGame();
+            resetGame();
+        }
+    }
+
+    /**
+     * 用给定种子的新方块序列重新开始（模式和 bag 设置不变）。
+     * 只适用于带种子创建的引擎。
+     */
+    public void newGame(long seed) {
+        if (!seeded) {
+            throw new IllegalStateException("Engine was created with a custom board and cannot be reseeded");
+        }
+        this.seed = seed;
+        board.newGame(SimpleBoard.createGenerator(bombMode, seed, sevenBag));
+        resetGame();
+    }
+
+    private void resetGame() {
+        started = true;
+        gameOver = false;
+        tickCount = 0;
+        gravityAccumulator = 0;
+        keys.releaseAll();
+        pieceId++;
+        fireBoardChanged();
+        publishScore();
+    }
+
+    /* ================= snapshots ================= */
+
+    /** 复制整个游戏状态；见 {@link #restore} */
+    public GameSnapshot snapshot() {
+        KeyState keysCopy = new KeyState();
+        keysCopy.copyFrom(keys);
+        return new GameSnapshot(board.snapshot(), seed, started, gameOver,
+                tickCount, gravityAccumulator, keysCopy);
+    }
+
+    /**
+     * 覆盖本引擎 {@link #snapshot()} 创建的存档槽。
+     * 只复制几百字节、不分配对象，前瞻搜索和撤销每帧调用几千次也没问题。
+     */
+    public void snapshot(GameSnapshot slot) {
+        board.snapshot(slot.board);
+        slot.seed = seed;
+        slot.started = started;
+        slot.gameOver = gameOver;
+        slot.tickCount = tickCount;
+        slot.gravityAccumulator = gravityAccumulator;
+        slot.keys.copyFrom(keys);
+    }
+
+    /**
+     * 回到本引擎的某个存档。监听者收到一次棋盘变化和恢复后的分数，
+     * 其他事件不会重放。
+     */
+    public void restore(GameSnapshot snapshot) {
+        board.restore(snapshot.board);
+        seed = snapshot.seed;
+        started = snapshot.started;
+        gameOver = snapshot.gameOver;
+        tickCount = snapshot.tickCount;
+        gravityAccumulator = snapshot.gravityAccumulator;
+        keys.copyFrom(snapshot.keys);
+        pieceId++;
+
+        fireBoardChanged();
+        publishedScore = -1;
+        publishScore();
+    }
+
+    /* ================= state ================= */
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /** 当前等级，从 1 开始 */
+    public int getLevel() {
+        return board.getScore().getLines() / LINES_PER_LEVEL + 1;
+    }
+
+    /**
+     * 当前活动方块的编号：每出现一个新的活动方块（生成、新的一局、读档）都会变。
+     * 它不属于游戏状态，不进存档和哈希，只用来识别为某个方块准备的输入。
+     */
+    public long getPieceId() {
+        return pieceId;
+    }
+
+    /** pieceId 为 {@link MoveEvent#ANY_PIECE} 或当前方块的编号 */
+    public boolean isForCurrentPiece(long pieceId) {
+        return pieceId == MoveEvent.ANY_PIECE || pieceId == this.pieceId;
+    }
+
+    /** 本局开始以来的逻辑 tick 数 */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * 决定游戏如何继续的全部状态的哈希：局面（背景 + 当前方块）、分数、
+     * 行数以及 tick / 重力计时。喂了相同输入的两个副本每个 tick 都必须
+     * 得到相同的值，所以比较它就是一个很便宜的不同步检查。
+     */
+    public long getStateHash() {
+        Score score = board.getScore();
+        long h = board.getPositionHash();
+        h = SplitMix64.mix(h ^ tickCount);
+        h = SplitMix64.mix(h ^ gravityAccumulator);
+        h = SplitMix64.mix(h ^ (((long) score.getScore() << 32) | (score.getLines() & 0xFFFFFFFFL)));
+        return gameOver ? ~h : h;
+    }
+
+    /** 方块序列由 {@link #getSeed()} 决定时为 true */
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    /** 本局方块生成器的种子（只在带种子时有效） */
+    public long getSeed() {
+        return seed;
+    }
+
+    public boolean isBombMode() {
+        return bombMode;
+    }
+
+    public boolean isSevenBag() {
+        return sevenBag;
+    }
+
+    public int getDasTicks() {
+        return dasTicks;
+    }
+
+    public int getArrTicks() {
+        return arrTicks;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public Score getScore() {
+        return board.getScore();
+    }
+
+    public ViewData getViewData() {
+        return board.getViewData();
+    }
+
+    public int[][] getBoardMatrix() {
+        return board.getBoardMatrix();
+    }
+
+    /* ================= events ================= */
+
+    private void fireBoardChanged() {
+        if (listeners.isEmpty()) return;
+        int[][] matrix = board.getBoardMatrix();
+        for (GameEventListener l : listeners) {
+            l.onBoardChanged(matrix);
+        }
+    }
+
+    private void fireGameOver() {
+        for (GameEventListener l : listeners) {
+            l.onGameOver();
+        }
+    }
+
+    // only fires when something actually changed
+    private void publishScore() {
+        Score score = board.getScore();
+        if (score.getScore() == publishedScore
+                && score.getLines() == publishedLines
+                && score.getHighScore() == publishedHighScore) {
+            return;
+        }
+        publishedScore = score.getScore();
+        publishedLines = score.getLines();
+        publishedHighScore = score.getHighScore();
+        for (GameEventListener l : listeners) {
+            l.onScoreChanged(publishedScore, publishedLines, publishedHighScore);
+        }
+    }
+}
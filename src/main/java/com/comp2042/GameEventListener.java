@@ -0,0 +1,35 @@
+// 游戏事件监听接口：GameEngine 在状态变化时通知订阅者（通常是 GUI）。
+// 所有方法都有空的默认实现，订阅者只需要覆盖自己关心的事件。
+// 无头模拟时可以不注册任何监听器。
+//
+// Observer interface for GameEngine. The GUI subscribes to redraw the board,
+// update the HUD and play effects; headless runs can simply skip it.
+// Every method has an empty default so listeners only override what they need.
+
+package com.comp2042;
+
+import java.awt.Point;
+import java.util.List;
+
+public interface GameEventListener {
+
+    /** 背景棋盘发生变化（落地 / 清行 / 爆炸 / 新游戏）。matrix 是共享视图，不要修改 */
+    default void onBoardChanged(int[][] matrix) {
+    }
+
+    /** 分数、消行数或最高分发生变化 */
+    default void onScoreChanged(int score, int lines, int highScore) {
+    }
+
+    /** 本次落地清除了若干行（只在 linesRemoved > 0 时调用） */
+    default void onRowsCleared(ClearRow clearRow) {
+    }
+
+    /** 炸弹爆炸，cells 是被清掉的格子 */
+    default void onExplosion(List<Point> cells) {
+    }
+
+    /** 新方块出生即冲突，游戏结束 */
+    default void onGameOver() {
+    }
+}
@@ -0,0 +1,319 @@
+package com.comp2042;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 在独立线程上运行 GameEngine（游戏逻辑线程）：
+ * - 输入：FX 线程把动作和按下 / 松开事件放进单生产者 / 单消费者队列并唤醒
+ *   逻辑线程，自己从不等待。按住的键在引擎 tick 里重复（DAS / ARR）。
+ * - 时间：逻辑线程用 FixedStepScheduler 跑固定 60 Hz 的 tick，
+ *   和 FX 线程渲染得快慢无关。
+ * - 输出：每次变化后通过 AtomicReference 发布一个不可变的 FrameSnapshot，
+ *   FX 的 pulse 总是绘制最新的那一帧。
+ *
+ * 所以 FX 线程上的 GC 停顿或慢布局只会推迟绘制，不会影响输入处理和重力。
+ *
+ * 设置了回放目录时，进入引擎的每个输入还会连同 tick 一起被记录，
+ * 每局结束后写成一个小文件（见 ReplayRecorder）。
+ */
+public final class GameLogicThread implements InputEventListener, GameEventListener {
+
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1) / GameEngine.TICKS_PER_SECOND;
+    private static final int MAX_TICKS_PER_LOOP = 8;
+    private static final int INPUT_CAPACITY = 256;
+
+    // queue entry = kind * 8 + EventType ordinal (same codes as the replay file);
+    // actions meant for one piece also carry STAMPED and the low bits of its id
+    private static final EventType[] TYPES = EventType.values();
+    private static final int CODE_MASK = 0xFF;
+    private static final int STAMP_SHIFT = 8;
+    private static final int STAMP_MASK = (1 << 22) - 1;
+    private static final int STAMPED = 1 << 30;
+
+    // every queued action comes from the user; indexed by EventType ordinal
+    private static final MoveEvent[] USER_EVENTS = new MoveEvent[EventType.values().length];
+    static {
+        for (EventType type : EventType.values()) {
+            USER_EVENTS[type.ordinal()] = new MoveEvent(type, EventSource.USER);
+        }
+    }
+
+    private final GameEngine engine;
+    private final SpscIntQueue input = new SpscIntQueue(INPUT_CAPACITY);
+    private final AtomicReference<FrameSnapshot> latestFrame = new AtomicReference<>();
+    private final FixedStepScheduler scheduler =
+            new FixedStepScheduler(GameEngine.TICKS_PER_SECOND, MAX_TICKS_PER_LOOP);
+
+    private final Thread thread;
+    private volatile boolean running;
+    private volatile boolean paused;
+    private final AtomicBoolean newGameRequested = new AtomicBoolean();
+    private final AtomicLong droppedInputs = new AtomicLong();
+
+    /* ---- replay recording (logic thread) ---- */
+    private Path replayDirectory;
+    private ReplayRecorder recorder;
+
+    /* ---- logic-thread state used to build snapshots ---- */
+    private long frameId;
+    private int[][] publishedBoard;
+    private boolean boardDirty = true;
+    private int clearSequence;
+    private int lastClearBonus;
+    private int explosionSequence;
+    private List<Point> explosionCells = List.of();
+
+    public GameLogicThread(GameEngine engine) {
+        this.engine = engine;
+        engine.addListener(this);
+
+        // first frame is ready before the thread starts
+        publish();
+
+        thread = new Thread(this::run, "game-logic");
+        thread.setDaemon(true);
+    }
+
+    /** 结束的对局保存为回放的目录；null（默认）= 不记录。需在 start() 之前调用 */
+    public void setReplayDirectory(Path replayDirectory) {
+        this.replayDirectory = replayDirectory;
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    /** 停止循环（例如离开游戏界面时） */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    /** 最新发布的一帧，不会为 null。任何线程都可以调用 */
+    public FrameSnapshot getLatestFrame() {
+        return latestFrame.get();
+    }
+
+    /* ================= input (FX thread) ================= */
+
+    @Override
+    public void onMoveEvent(MoveEvent event) {
+        submit(event.getEventType(), ReplayRecorder.KIND_ACTION, event.getPieceId());
+    }
+
+    @Override
+    public void onKeyPressed(EventType key) {
+        submit(key, ReplayRecorder.KIND_KEY_DOWN, MoveEvent.ANY_PIECE);
+    }
+
+    @Override
+    public void onKeyReleased(EventType key) {
+        submit(key, ReplayRecorder.KIND_KEY_UP, MoveEvent.ANY_PIECE);
+    }
+
+    /**
+     * 松开事件绝不丢弃：丢了的话这个键在引擎里会一直按着，直到下次按下前
+     * 都在自动移动。队列满时 FX 线程等逻辑线程腾出位置（它每轮都会取空整个
+     * 队列，只需几微秒）。放不下的动作和按下事件会被丢弃并计数，
+     * 见 {@link #getDroppedInputs()}。
+     * 带方块编号的动作到达逻辑线程时，如果那个方块已经锁定就被丢弃。
+     */
+    private void submit(EventType type, int kind, long pieceId) {
+        int code = kind * 8 + type.ordinal();
+        if (pieceId != MoveEvent.ANY_PIECE) {
+            code |= STAMPED | (int) (pieceId & STAMP_MASK) << STAMP_SHIFT;
+        }
+        if (!input.offer(code)) {
+            if (kind != ReplayRecorder.KIND_KEY_UP) {
+                droppedInputs.incrementAndGet();
+                return;
+            }
+            while (!input.offer(code)) {
+                if (!running) {
+                    // nobody drains the queue any more
+                    return;
+                }
+                LockSupport.unpark(thread);
+                Thread.yield();
+            }
+        }
+        LockSupport.unpark(thread);
+    }
+
+    /** 因输入队列已满而丢弃的动作和按下事件个数 */
+    public long getDroppedInputs() {
+        return droppedInputs.get();
+    }
+
+    @Override
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void createNewGame() {
+        newGameRequested.set(true);
+        LockSupport.unpark(thread);
+    }
+
+    /* ================= logic thread ================= */
+
+    private void run() {
+        startRecording();
+
+        while (running) {
+            boolean changed = false;
+
+            if (newGameRequested.getAndSet(false)) {
+                // the old game may still be running: save what we have
+                finishRecording();
+
+                // Do NOT reset high score here
+                engine.newGame();
+                scheduler.reset();
+                changed = true;
+
+                startRecording();
+            }
+
+            int code;
+            while ((code = input.poll()) != SpscIntQueue.EMPTY) {
+                EventType type = TYPES[(code & CODE_MASK) % 8];
+                int kind = (code & CODE_MASK) / 8;
+                long tick = engine.getTickCount();
+
+                if ((code & STAMPED) != 0
+                        && (code >>> STAMP_SHIFT & STAMP_MASK) != (engine.getPieceId() & STAMP_MASK)) {
+                    // planned for a piece that has locked since: never apply it to the next one
+                    continue;
+                }
+
+                if (kind == ReplayRecorder.KIND_KEY_UP) {
+                    // always track releases, or a key would stay held after a pause
+                    engine.keyUp(type);
+                    if (recorder != null) {
+                        recorder.recordKeyUp(tick, type);
+                    }
+                } else if (!paused && !engine.isGameOver()) {
+                    if (kind == ReplayRecorder.KIND_KEY_DOWN) {
+                        if (recorder != null) {
+                            recorder.recordKeyDown(tick, type);
+                        }
+                        changed |= engine.keyDown(type) != null;
+                    } else {
+                        if (recorder != null) {
+                            recorder.recordAction(tick, type);
+                        }
+                        engine.step(USER_EVENTS[type.ordinal()]);
+                        changed = true;
+                    }
+                }
+            }
+
+            if (paused || engine.isGameOver()) {
+                // paused time is not caught up later
+                scheduler.reset();
+            } else {
+                int ticks = scheduler.advance(System.nanoTime());
+                for (int i = 0; i < ticks; i++) {
+                    if (engine.tick() != null) {
+                        changed = true;
+                    }
+                }
+            }
+
+            if (changed) {
+                publish();
+            }
+
+            // sleep until the next tick, or until new input arrives
+            LockSupport.parkNanos(TICK_NANOS);
+        }
+
+        finishRecording();
+    }
+
+    /* ================= replays (logic thread) ================= */
+
+    private void startRecording() {
+        if (replayDirectory != null && engine.isSeeded()) {
+            recorder = ReplayRecorder.forGame(engine);
+        }
+    }
+
+    /** 结束当前录制并写出文件（和最高分文件一样，出错时忽略） */
+    private void finishRecording() {
+        if (recorder == null || recorder.isFinished()) return;
+
+        recorder.finish(engine.getTickCount());
+        String name = "replay-" + System.currentTimeMillis() + "-" + Long.toHexString(engine.getSeed()) + ".trp";
+        try {
+            recorder.writeTo(replayDirectory.resolve(name));
+        } catch (IOException ignored) {
+            // a lost replay must not affect the game
+        }
+    }
+
+    /** 根据引擎状态生成新的不可变帧 */
+    private void publish() {
+        if (boardDirty || publishedBoard == null) {
+            publishedBoard = MatrixOperations.copy(engine.getBoardMatrix());
+            boardDirty = false;
+        }
+        Score score = engine.getScore();
+        latestFrame.set(new FrameSnapshot(
+                ++frameId,
+                engine.getViewData(),
+                publishedBoard,
+                score.getScore(),
+                score.getLines(),
+                engine.getLevel(),
+                score.getHighScore(),
+                engine.isGameOver(),
+                clearSequence,
+                lastClearBonus,
+                explosionSequence,
+                explosionCells
+        ));
+    }
+
+    /* ================= engine events (logic thread) ================= */
+
+    @Override
+    public void onGameOver() {
+        finishRecording();
+    }
+
+    @Override
+    public void onBoardChanged(int[][] matrix) {
+        boardDirty = true;
+    }
+
+    @Override
+    public void onRowsCleared(ClearRow clearRow) {
+        clearSequence++;
+        lastClearBonus = clearRow.getScoreBonus();
+    }
+
+    @Override
+    public void onExplosion(List<Point> cells) {
+        // the engine reuses its list; the frame needs its own copy
+        List<Point> copy = new ArrayList<>(cells.size());
+        for (Point p : cells) {
+            copy.add(new Point(p));
+        }
+        explosionCells = List.copyOf(copy);
+        explosionSequence++;
+    }
+}
@@ -0,0 +1,37 @@
+package com.comp2042;
+
+/**
+ * GameEngine 在某一个 tick 的完整存档（GameSnapshot）：
+ * 棋盘存档加上引擎自己的计时状态（tick 计数、重力累加器、按住的键）。
+ *
+ * 恢复它再喂入相同的输入，得到的游戏和原来那一局完全一样，回放跳转就靠这一点。
+ * 由 {@link GameEngine#snapshot()} 创建，可以恢复任意多次。
+ * {@link GameEngine#snapshot(GameSnapshot)} 把它当作存档槽原地覆盖，不分配对象，
+ * 供前瞻搜索和撤销使用。
+ */
+public final class GameSnapshot {
+
+    final BoardSnapshot board;
+    long seed;
+    boolean started;
+    boolean gameOver;
+    long tickCount;
+    long gravityAccumulator;
+    final KeyState keys;
+
+    GameSnapshot(BoardSnapshot board, long seed, boolean started, boolean gameOver,
+                 long tickCount, long gravityAccumulator, KeyState keys) {
+        this.board = board;
+        this.seed = seed;
+        this.started = started;
+        this.gameOver = gameOver;
+        this.tickCount = tickCount;
+        this.gravityAccumulator = gravityAccumulator;
+        this.keys = keys;
+    }
+
+    /** 存档时的 tick */
+    public long getTickCount() {
+        return tickCount;
+    }
+}
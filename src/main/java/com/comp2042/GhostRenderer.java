@@ -1,14 +1,24 @@
 package com.comp2042;
 
+import com.comp2042.logic.bricks.BrickShape;
 import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
 import javafx.scene.shape.Rectangle;
 
 /**
- * 负责绘制“幽灵影子块”的小工具类。
- * 不保存状态，只根据传入的棋盘、当前方块数据来算影子落点并画出来。
+ * 负责“幽灵影子块”的小工具类。
+ * 不保存状态，也不做任何碰撞计算：落点行由逻辑层算好并缓存在 ViewData 里。
+ * 这里只负责算出影子占哪几个可见格子，以及怎么把一个格子画成影子。
+ * 具体哪些格子需要重画由 BoardView 决定（只改变化了的格子）。
  */
 public class GhostRenderer {
 
+    /** 半透明白色作为影子，不改变原方块颜色 */
+    private static final Paint GHOST_FILL = Color.color(1.0, 1.0, 1.0, 0.28);
+
+    /** 一个影子最多占的格子数（4x4 形状） */
+    public static final int MAX_GHOST_CELLS = 16;
+
     /** 顶部隐藏的行数（小于这个行号的不要画出来） */
     private final int hiddenRows;
 
@@ -17,86 +27,45 @@ public class GhostRenderer {
     }
 
     /**
-     * 计算并绘制“幽灵影子块”：
-     * 根据当前棋盘 boardState 和正在下落的方块，算出它到底会落到哪一行，
-     * 然后在对应位置画一层半透明白色。
+     * 算出影子占用的可见格子，写进 out（每个格子编码为 y * cols + x），返回格子数。
+     * 只遍历形状里占用的格子，越界和隐藏行里的格子会被跳过。
      *
-     * @param brick         当前正在下落的方块数据
-     * @param boardState    当前背景棋盘（数值矩阵）
-     * @param displayMatrix 背景对应的 Rectangle 矩阵（用于实际画影子）
+     * @param brick 当前正在下落的方块数据（包含落点行）
+     * @param rows  棋盘行数
+     * @param cols  棋盘列数
+     * @param out   输出缓冲区，长度至少 MAX_GHOST_CELLS
      */
-    public void drawGhost(ViewData brick,
-                          int[][] boardState,
-                          Rectangle[][] displayMatrix) {
+    public int collectGhostCells(ViewData brick, int rows, int cols, int[] out) {
 
-        if (boardState == null || brick == null || displayMatrix == null) {
-            return;
+        if (brick == null) {
+            return 0;
         }
 
-        int[][] brickData = brick.getBrickData();
-        int rows = boardState.length;
-        int cols = boardState[0].length;
-
+        BrickShape shape = brick.getBrickShape();
         int x = brick.getxPosition();
-        int y = brick.getyPosition();
-
-        // 从当前 y 一直往下试探，直到不能再放
-        int ghostY = y;
-        while (canPlace(brickData, x, ghostY + 1, boardState)) {
-            ghostY++;
-        }
+        int ghostY = brick.getGhostYPosition();
 
-        // 把幽灵影子画在 displayMatrix 上（只画在可见区域）
-        for (int i = 0; i < brickData.length; i++) {
-            for (int j = 0; j < brickData[i].length; j++) {
-                if (brickData[i][j] != 0) {
-                    int gx = x + j;
-                    int gy = ghostY + i;
+        int count = 0;
+        for (int i = 0; i < shape.getCellCount(); i++) {
+            int gx = x + shape.getCellX(i);
+            int gy = ghostY + shape.getCellY(i);
 
-                    if (gx < 0 || gx >= cols || gy < 0 || gy >= rows) {
-                        continue;
-                    }
+            if (gx < 0 || gx >= cols || gy < 0 || gy >= rows) {
+                continue;
+            }
 
-                    // 只在可见区域（跳过隐藏行）
-                    if (gy >= hiddenRows) {
-                        Rectangle cell = displayMatrix[gy][gx];
-                        if (cell != null) {
-                            // 半透明白色作为影子，不改变原方块颜色
-                            cell.setFill(Color.color(1.0, 1.0, 1.0, 0.28));
-                        }
-                    }
-                }
+            // 只在可见区域（跳过隐藏行）
+            if (gy >= hiddenRows) {
+                out[count++] = gy * cols + gx;
             }
         }
+        return count;
     }
 
-    /**
-     * 简单碰撞检测，检查 brickData 放在 (x, y) 是否会出界或撞到 board。
-     * 仅用于计算幽灵影子，不影响真实逻辑层。
-     */
-    private boolean canPlace(int[][] brickData, int x, int y, int[][] board) {
-
-        int rows = board.length;
-        int cols = board[0].length;
-
-        for (int i = 0; i < brickData.length; i++) {
-            for (int j = 0; j < brickData[i].length; j++) {
-                if (brickData[i][j] != 0) {
-
-                    int bx = x + j;
-                    int by = y + i;
-
-                    if (bx < 0 || bx >= cols || by < 0 || by >= rows) {
-                        return false;
-                    }
-
-                    if (board[by][bx] != 0) {
-                        return false;
-                    }
-                }
-            }
+    /** 把一个背景格子画成影子 */
+    public void paintGhost(Rectangle cell) {
+        if (cell != null) {
+            cell.setFill(GHOST_FILL);
         }
-
-        return true;
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,8 @@
 package com.comp2042;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
-import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
@@ -22,7 +21,6 @@ import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
-import javafx.util.Duration;
 
 import java.net.URL;
 import java.util.List;
@@ -34,7 +32,6 @@ public class GuiController implements Initializable {
     private static final int BRICK_SIZE = 32;
     private static final int PREVIEW_BRICK_SIZE = 20;
     private static final int BOARD_HIDDEN_ROWS = 2;
-    private static final int FALL_INTERVAL_MS = 400;
     private static final int BRICK_CORNER_ARC = 9;
 
     private static final Paint[] BRICK_COLORS = {
@@ -64,13 +61,27 @@ public class GuiController implements Initializable {
 
     @FXML private GridPane nextBrickPanel;
 
-    private InputEventListener eventListener;
-    private Timeline timeLine;
+    // 游戏逻辑跑在自己的线程里：这里只负责把输入排进队列、渲染它发布的最新一帧
+    private GameLogicThread gameLogic;
+
+    // AnimationTimer 每个 pulse 取一次最新快照，和上一帧不同才画
+    private AnimationTimer renderLoop;
+    private FrameSnapshot renderedFrame;
+
+    // 接上录像播放器时画录像的画面（游戏暂停），按实时速度播放，方向键快进 / 快退
+    private static final long REPLAY_SEEK_TICKS = 5L * GameEngine.TICKS_PER_SECOND;
+    private ReplayPlayer replay;
+    private boolean replayPlaying;
+    private final FixedStepScheduler replayClock =
+            new FixedStepScheduler(GameEngine.TICKS_PER_SECOND, GameEngine.TICKS_PER_SECOND);
 
     private final BooleanProperty isPause = new SimpleBooleanProperty(false);
     private final BooleanProperty isGameOver = new SimpleBooleanProperty(false);
 
-    private BoardView boardView;
+    private BoardRenderer boardView;
+
+    // AI 玩家（-Dtetris.bot=true 时才有），离开游戏界面时一起停掉
+    private BotPlayer botPlayer;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -80,16 +91,30 @@ public class GuiController implements Initializable {
                 38
         );
 
-        boardView = new BoardView(
-                gamePanel,
-                brickPanel,
-                nextBrickPanel,
-                BRICK_SIZE,
-                PREVIEW_BRICK_SIZE,
-                BOARD_HIDDEN_ROWS,
-                BRICK_CORNER_ARC,
-                BRICK_COLORS
-        );
+        // -Dtetris.renderer=canvas 切换到 Canvas 绘制（用来对比帧耗时）
+        if (ViewConfig.useCanvasRenderer()) {
+            boardView = new CanvasBoardView(
+                    gamePanel,
+                    brickPanel,
+                    nextBrickPanel,
+                    BRICK_SIZE,
+                    PREVIEW_BRICK_SIZE,
+                    BOARD_HIDDEN_ROWS,
+                    BRICK_CORNER_ARC,
+                    BRICK_COLORS
+            );
+        } else {
+            boardView = new BoardView(
+                    gamePanel,
+                    brickPanel,
+                    nextBrickPanel,
+                    BRICK_SIZE,
+                    PREVIEW_BRICK_SIZE,
+                    BOARD_HIDDEN_ROWS,
+                    BRICK_CORNER_ARC,
+                    BRICK_COLORS
+            );
+        }
 
         gamePanel.setFocusTraversable(true);
         gamePanel.requestFocus();
@@ -98,36 +123,17 @@ public class GuiController implements Initializable {
             @Override
             public void handle(KeyEvent keyEvent) {
 
-                if (!isPause.get() && !isGameOver.get()) {
-
-                    if (keyEvent.getCode() == KeyCode.LEFT || keyEvent.getCode() == KeyCode.A) {
-                        handleDownResult(new DownData(null,
-                                eventListener.onLeftEvent(
-                                        new MoveEvent(EventType.LEFT, EventSource.USER))));
-                        keyEvent.consume();
-                    }
-
-                    if (keyEvent.getCode() == KeyCode.RIGHT || keyEvent.getCode() == KeyCode.D) {
-                        handleDownResult(new DownData(null,
-                                eventListener.onRightEvent(
-                                        new MoveEvent(EventType.RIGHT, EventSource.USER))));
-                        keyEvent.consume();
-                    }
-
-                    if (keyEvent.getCode() == KeyCode.UP || keyEvent.getCode() == KeyCode.W) {
-                        handleDownResult(new DownData(null,
-                                eventListener.onRotateEvent(
-                                        new MoveEvent(EventType.ROTATE, EventSource.USER))));
-                        keyEvent.consume();
-                    }
+                if (replay != null) {
+                    handleReplayKey(keyEvent);
+                    return;
+                }
 
-                    if (keyEvent.getCode() == KeyCode.DOWN || keyEvent.getCode() == KeyCode.S) {
-                        moveDown(new MoveEvent(EventType.DOWN, EventSource.USER));
-                        keyEvent.consume();
-                    }
+                if (!isPause.get() && !isGameOver.get()) {
 
-                    if (keyEvent.getCode() == KeyCode.SPACE) {
-                        hardDrop();
+                    EventType action = toAction(keyEvent.getCode());
+                    if (action != null) {
+                        // 只记录按下，连移（DAS / ARR）由逻辑线程处理，系统的按键重复会被忽略
+                        gameLogic.onKeyPressed(action);
                         keyEvent.consume();
                     }
                 }
@@ -143,162 +149,324 @@ public class GuiController implements Initializable {
             }
         });
 
+        // 松开也要告诉逻辑线程（暂停时同样要发，避免按键“卡住”）
+        gamePanel.setOnKeyReleased(new EventHandler<KeyEvent>() {
+            @Override
+            public void handle(KeyEvent keyEvent) {
+                EventType action = toAction(keyEvent.getCode());
+                if (action != null && gameLogic != null) {
+                    gameLogic.onKeyReleased(action);
+                    keyEvent.consume();
+                }
+            }
+        });
+
+        // 失去焦点时收不到松开事件，把所有按键当作松开
+        gamePanel.focusedProperty().addListener((obs, wasFocused, focused) -> {
+            if (!focused && gameLogic != null) {
+                for (EventType type : EventType.values()) {
+                    gameLogic.onKeyReleased(type);
+                }
+            }
+        });
+
         gameOverPanel.setVisible(false);
     }
 
+    /** 键位映射：方向键 / WASD 移动、旋转、软降，空格硬降 */
+    private static EventType toAction(KeyCode code) {
+        switch (code) {
+            case LEFT: case A:  return EventType.LEFT;
+            case RIGHT: case D: return EventType.RIGHT;
+            case UP: case W:    return EventType.ROTATE;
+            case DOWN: case S:  return EventType.DOWN;
+            case SPACE:         return EventType.HARD_DROP;
+            default:            return null;
+        }
+    }
+
     public void initGameView(int[][] boardMatrix, ViewData brick) {
 
         boardView.initGameView(boardMatrix, brick);
 
-        timeLine = new Timeline(new KeyFrame(
-                Duration.millis(FALL_INTERVAL_MS),
-                ae -> moveDown(new MoveEvent(EventType.DOWN, EventSource.THREAD))
-        ));
-        timeLine.setCycleCount(Timeline.INDEFINITE);
-        timeLine.play();
+        renderLoop = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                renderFrame(currentFrame(now));
+            }
+        };
+        renderLoop.start();
 
         pauseButton.setText("Pause");
     }
 
-    private void refreshBrick(ViewData brick) {
-        if (!isPause.get()) {
-            boardView.refreshBrick(brick);
-        }
+    public void setGameLogic(GameLogicThread gameLogic) {
+        this.gameLogic = gameLogic;
+    }
+
+    public void setBotPlayer(BotPlayer botPlayer) {
+        this.botPlayer = botPlayer;
+    }
+
+    /**
+     * 给 AI 玩家用的输入：先转到 FX 线程，再和键盘走同一条路交给逻辑线程
+     * （输入队列只允许 FX 线程一个生产者）。暂停、游戏结束、看录像时 AI 的动作和按键一样被忽略。
+     */
+    public InputEventListener createBotInput() {
+        return new InputEventListener() {
+            @Override
+            public void onMoveEvent(MoveEvent event) {
+                Platform.runLater(() -> {
+                    if (gameLogic != null && replay == null && !isPause.get() && !isGameOver.get()) {
+                        gameLogic.onMoveEvent(event);
+                    }
+                });
+            }
+
+            @Override
+            public void onKeyPressed(EventType key) {
+                Platform.runLater(() -> {
+                    if (gameLogic != null && replay == null && !isPause.get() && !isGameOver.get()) {
+                        gameLogic.onKeyPressed(key);
+                    }
+                });
+            }
+
+            @Override
+            public void onKeyReleased(EventType key) {
+                Platform.runLater(() -> {
+                    if (gameLogic != null) {
+                        gameLogic.onKeyReleased(key);
+                    }
+                });
+            }
+
+            @Override
+            public void setPaused(boolean paused) {
+                // only the player pauses the game
+            }
+
+            @Override
+            public void createNewGame() {
+                Platform.runLater(() -> newGame(null));
+            }
+        };
     }
 
-    public void refreshGameBackground(int[][] board) {
-        boardView.refreshBackground(board);
+    /** 在棋盘上方弹出一条渐隐的提示（加分、录像读取失败等），必须在 FX 线程上调用 */
+    public void showNotification(String text) {
+        NotificationPanel np = new NotificationPanel(text);
+        groupNotification.getChildren().add(np);
+        np.showScore(groupNotification.getChildren());
     }
 
-    public void refreshNextBrick(ViewData viewData) {
-        boardView.renderNextBrick(viewData);
+    // ====================== 录像 ======================
+
+    /**
+     * 接上录像播放器：游戏暂停，画面改为录像当前位置，并从这里开始按实时速度播放。
+     * 必须在 initGameView 之后、在 FX 线程上调用。
+     */
+    public void attachReplay(ReplayPlayer player) {
+        if (gameLogic != null) {
+            gameLogic.setPaused(true);
+        }
+        replay = player;
+        replayPlaying = true;
+        replayClock.reset();
+        redrawAll();
     }
 
-    public void playExplosionAnimation(List<Point> cells) {
-        if (boardView != null && cells != null && !cells.isEmpty()) {
-            boardView.playExplosionAnimation(cells);
+    /** 断开录像，回到（暂停前的）游戏画面 */
+    public void detachReplay() {
+        if (replay == null) return;
+        replay = null;
+        replayPlaying = false;
+        if (gameLogic != null) {
+            gameLogic.setPaused(isPause.get());
         }
+        redrawAll();
     }
 
-    // ====================== 下落 & 硬降 ======================
+    /** 录像跳到指定 tick（有存档，通常不到 1 毫秒） */
+    public void seekReplay(long tick) {
+        if (replay == null) return;
+        replay.seek(tick);
+        replayClock.reset();
+    }
 
-    private void moveDown(MoveEvent event) {
-        if (!isPause.get()) {
-            DownData downData = eventListener.onDownEvent(event);
-            handleDownResult(downData);
+    /** 空格 / P 播放暂停，左右方向键后退 / 前进 5 秒，HOME / END 跳到开头 / 结尾，ESC 退出录像 */
+    private void handleReplayKey(KeyEvent keyEvent) {
+        switch (keyEvent.getCode()) {
+            case SPACE: case P:
+                replayPlaying = !replayPlaying;
+                replayClock.reset();
+                break;
+            case LEFT:
+                seekReplay(replay.getTick() - REPLAY_SEEK_TICKS);
+                break;
+            case RIGHT:
+                seekReplay(replay.getTick() + REPLAY_SEEK_TICKS);
+                break;
+            case HOME:
+                seekReplay(0);
+                break;
+            case END:
+                seekReplay(replay.getEndTick());
+                break;
+            case ESCAPE:
+                detachReplay();
+                break;
+            default:
+                return;
         }
-        gamePanel.requestFocus();
+        keyEvent.consume();
     }
 
-    private void hardDrop() {
-        if (isPause.get() || isGameOver.get()) return;
+    /** 本帧要画的画面：录像（按经过的时间推进）或逻辑线程发布的最新一帧 */
+    private FrameSnapshot currentFrame(long now) {
+        if (replay == null) {
+            return gameLogic.getLatestFrame();
+        }
+        if (replayPlaying) {
+            replay.advance(replayClock.advance(now));
+            if (replay.isFinished()) {
+                replayPlaying = false;
+            }
+        }
+        return replay.getFrame();
+    }
 
-        DownData downData =
-                eventListener.onDownEvent(new MoveEvent(EventType.HARD_DROP, EventSource.USER));
-        handleDownResult(downData);
-        gamePanel.requestFocus();
+    /** 换了画面来源：下一帧当作第一帧整个重画，游戏结束面板按新画面重新判断 */
+    private void redrawAll() {
+        renderedFrame = null;
+        gameOverPanel.setVisible(false);
+        isGameOver.set(false);
     }
 
+    // ====================== 渲染 ======================
+
     /**
-     * 统一处理一次“下落/硬降”的结果：
-     *  - 如果有消行，显示加分动画
-     *  - 刷新当前方块和 next 预览
+     * 每个 pulse 调用一次，把逻辑线程发布的最新一帧画出来：
+     *  1) 背景（棋盘数组换了才画）
+     *  2) 爆炸动画、清行加分提示（按序号判断两帧之间是否发生过）
+     *  3) 当前方块 / 影子 / next 预览（版本号没变渲染器会直接跳过）
+     *  4) HUD（数值变了才改）和游戏结束
+     * 中间跳过的帧不用补画，只画最新的；最后 flush() 一次，保证每个 pulse 最多重画一次。
      */
-    private void handleDownResult(DownData downData) {
-        if (downData == null) return;
+    private void renderFrame(FrameSnapshot frame) {
+        FrameSnapshot previous = renderedFrame;
+        if (frame == null || frame == previous || (isPause.get() && replay == null)) return;
+        renderedFrame = frame;
 
-        if (downData.getClearRow() != null &&
-                downData.getClearRow().getLinesRemoved() > 0) {
-
-            NotificationPanel np =
-                    new NotificationPanel("+" + downData.getClearRow().getScoreBonus());
-            groupNotification.getChildren().add(np);
-            np.showScore(groupNotification.getChildren());
-        }
+        drawFrame(frame, previous);
 
-        refreshBrick(downData.getViewData());
-        refreshNextBrick(downData.getViewData());
+        // everything above only marked the view dirty; draw it once
+        boardView.flush();
     }
 
-    // ====================== 绑定 HUD ======================
+    private void drawFrame(FrameSnapshot frame, FrameSnapshot previous) {
 
-    public void setEventListener(InputEventListener eventListener) {
-        this.eventListener = eventListener;
-    }
+        if (previous == null || frame.getBoard() != previous.getBoard()) {
+            boardView.refreshBackground(frame.getBoard());
+        }
 
-    public void bindScore(IntegerProperty scoreProperty) {
-        if (scoreLabel != null && scoreProperty != null) {
-            scoreLabel.textProperty().bind(scoreProperty.asString());
+        if (previous != null && frame.getExplosionSequence() != previous.getExplosionSequence()) {
+            // Play the explosion animation (black + shake)
+            playExplosionAnimation(frame.getExplosionCells());
         }
-    }
 
-    public void bindLines(IntegerProperty linesProperty) {
-        if (linesLabel != null && linesProperty != null) {
+        if (previous != null && frame.getClearSequence() != previous.getClearSequence()) {
+            showNotification("+" + frame.getLastClearBonus());
+        }
 
-            linesLabel.textProperty().bind(linesProperty.asString());
+        boardView.refreshBrick(frame.getViewData());
+        boardView.renderNextBrick(frame.getViewData());
 
-            linesProperty.addListener((obs, oldVal, newVal) -> {
-                if (timeLine != null) {
-                    int lines = newVal.intValue();
-                    int levelIndex = lines / 5;
-                    double rate = 1.0 + levelIndex * 0.2;
-                    timeLine.setRate(rate);
+        // HUD labels only when a value changed (setText always re-lays out the label)
+        if (previous == null
+                || frame.getScore() != previous.getScore()
+                || frame.getLines() != previous.getLines()
+                || frame.getLevel() != previous.getLevel()
+                || frame.getHighScore() != previous.getHighScore()) {
+            updateScore(frame.getScore(), frame.getLines(), frame.getLevel(), frame.getHighScore());
+        }
 
-                    // 更新 LEVEL 显示：从 1 开始
-                    if (levelLabel != null) {
-                        int level = levelIndex + 1;
-                        levelLabel.setText(String.valueOf(level));
-                    }
-                }
-            });
+        if (frame.isGameOver() && !isGameOver.get()) {
+            gameOver();
+        } else if (!frame.isGameOver() && isGameOver.get() && replay != null) {
+            // 录像往回跳过了游戏结束
+            gameOverPanel.setVisible(false);
+            isGameOver.set(false);
         }
     }
 
-    public void bindHighScore(IntegerProperty highScoreProperty) {
-        if (highScoreLabel != null && highScoreProperty != null) {
-            highScoreLabel.textProperty().bind(highScoreProperty.asString());
+    private void playExplosionAnimation(List<Point> cells) {
+        if (boardView != null && cells != null && !cells.isEmpty()) {
+            boardView.playExplosionAnimation(cells);
         }
     }
 
-    // ====================== 游戏状态 ======================
+    // ====================== HUD ======================
 
-    public void gameOver() {
-        if (timeLine != null) {
-            timeLine.stop();
+    /**
+     * 刷新 HUD：分数、消行数、LEVEL、最高分（下落速度由 GameEngine 按等级计算）。
+     */
+    private void updateScore(int score, int lines, int level, int highScore) {
+        if (scoreLabel != null) {
+            scoreLabel.setText(String.valueOf(score));
+        }
+        if (highScoreLabel != null) {
+            highScoreLabel.setText(String.valueOf(highScore));
+        }
+        if (linesLabel != null) {
+            linesLabel.setText(String.valueOf(lines));
         }
+        if (levelLabel != null) {
+            levelLabel.setText(String.valueOf(level));
+        }
+    }
+
+    // ====================== 游戏状态 ======================
+
+    private void gameOver() {
+        // 逻辑线程已经停止重力；渲染循环继续跑，新游戏的第一帧会自动画出来
         gameOverPanel.setVisible(true);
         isGameOver.set(true);
     }
 
     public void newGame(ActionEvent e) {
-        if (timeLine != null) {
-            timeLine.stop();
-        }
+        detachReplay();
         gameOverPanel.setVisible(false);
 
-        eventListener.createNewGame();
-
-        gamePanel.requestFocus();
-        if (timeLine != null) {
-            timeLine.play();
-        }
+        gameLogic.setPaused(false);
+        gameLogic.createNewGame();
         isPause.set(false);
         isGameOver.set(false);
 
+        gamePanel.requestFocus();
+
         pauseButton.setText("Pause");
     }
 
     public void pauseGame(ActionEvent e) {
 
-        if (timeLine == null) return;
+        if (gameLogic == null) return;
+
+        if (replay != null) {
+            replayPlaying = !replayPlaying;
+            replayClock.reset();
+            gamePanel.requestFocus();
+            return;
+        }
 
         if (isPause.get()) {
             isPause.set(false);
-            timeLine.play();
+            // 暂停期间的时间不算，重力从现在重新计时（逻辑线程里处理）
+            gameLogic.setPaused(false);
             pauseButton.setText("Pause");
         } else {
             isPause.set(true);
-            timeLine.pause();
+            gameLogic.setPaused(true);
             pauseButton.setText("Resume");
         }
 
@@ -309,6 +477,15 @@ public class GuiController implements Initializable {
      * 返回主菜单按钮
      */
     public void onReturnToMenu(ActionEvent e) {
+        if (renderLoop != null) {
+            renderLoop.stop();
+        }
+        if (gameLogic != null) {
+            gameLogic.stop();
+        }
+        if (botPlayer != null) {
+            botPlayer.stop();
+        }
         try {
             FXMLLoader loader = new FXMLLoader(
                     GuiController.class.getResource("/mainMenu.fxml")
@@ -0,0 +1,61 @@
+package com.comp2042;
+
+import com.comp2042.logic.bricks.BrickShape;
+
+import java.util.List;
+
+/**
+ * 贪心落子：枚举当前方块所有能到达的落点（每个旋转 × 每一列），
+ * 在真实棋盘上试走一步（合并、爆炸、消行都和游戏里一样），用 BoardEvaluator 打分，选最高的。
+ *
+ * 每次试走前后用同一个预分配的存档槽 snapshot / restore，整个搜索不分配内存。
+ * Single-threaded, one piece deep.
+ */
+public final class HeuristicPolicy implements PlacementPolicy {
+
+    private final BoardEvaluator evaluator;
+    private BoardSnapshot slot;
+
+    public HeuristicPolicy() {
+        this(BoardEvaluator.DEFAULT);
+    }
+
+    public HeuristicPolicy(BoardEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    @Override
+    public Placement choose(SimpleBoard board) {
+        if (slot == null) {
+            slot = board.snapshot();
+        } else {
+            board.snapshot(slot);
+        }
+
+        List<BrickShape> shapes = board.getCurrentBrick().getShapes();
+        int cols = board.getBoardState().getCols();
+
+        int bestRotation = board.getCurrentRotation();
+        int bestX = board.getCurrentX();
+        double bestValue = Double.NEGATIVE_INFINITY;
+
+        for (int rotation = 0; rotation < shapes.size(); rotation++) {
+            BrickShape shape = shapes.get(rotation);
+            for (int x = -shape.getMinX(); x <= cols - 1 - shape.getMaxX(); x++) {
+                if (Placement.moveTo(board, rotation, x)) {
+                    board.hardDrop();
+                    board.mergeBrickToBackground();
+                    int lines = board.clearRows().getLinesRemoved();
+                    double value = evaluator.evaluate(board.getBoardState(), lines);
+                    if (value > bestValue) {
+                        bestValue = value;
+                        bestRotation = rotation;
+                        bestX = x;
+                    }
+                }
+                board.restore(slot);
+            }
+        }
+        return new Placement(bestRotation, bestX);
+    }
+}
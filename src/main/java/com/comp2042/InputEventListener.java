@@ -1,22 +1,27 @@
-// 输入事件监听接口：用来处理玩家或系统触发的移动、旋转、下落等操作。
-// GuiController 会把键盘事件转成 MoveEvent，然后交给实现类（通常是 GameController）处理。
-// 这样界面层不用关心具体的游戏逻辑，结构更清晰。
+// 输入事件监听接口：用来接收玩家触发的移动、旋转、下落等操作。
+// GuiController 会把按键的按下 / 松开交给实现类（GameLogicThread），
+// 实现类只负责把输入排进队列，立即返回，真正的处理在游戏逻辑线程里进行；
+// 处理结果通过 FrameSnapshot 交回界面。
 //
-// Input listener interface. GUI sends MoveEvent objects here when the user
-// presses keys (or when the game thread triggers a down event). The actual
-// game logic is handled by classes like GameController.
+// Input listener interface. The GUI forwards key down / up events.
+// Implementations (GameLogicThread) only queue the input and return at once;
+// the game logic runs on its own thread and results come back as frames.
 
 package com.comp2042;
 
 public interface InputEventListener {
 
-    DownData onDownEvent(MoveEvent event);
+    /** 提交一个一次性的输入动作（不等待结果） */
+    void onMoveEvent(MoveEvent event);
 
-    ViewData onLeftEvent(MoveEvent event);
+    /** 按键按下：动作立即执行一次，按住时由逻辑线程按 DAS / ARR 自动重复 */
+    void onKeyPressed(EventType key);
 
-    ViewData onRightEvent(MoveEvent event);
+    /** 按键松开 */
+    void onKeyReleased(EventType key);
 
-    ViewData onRotateEvent(MoveEvent event);
+    /** 暂停 / 继续：暂停期间的输入和重力都会被忽略 */
+    void setPaused(boolean paused);
 
     void createNewGame();
 }
@@ -0,0 +1,88 @@
+package com.comp2042;
+
+import java.util.Arrays;
+
+/**
+ * 记录每个按键是否按住、在第几个逻辑 tick 按下，给 GameEngine 计算 DAS / ARR 用。
+ * 时间戳用引擎自己的 tick 计数，所以同样的输入序列总是得到同样的结果（回放 / 模拟也一样）。
+ *
+ * 左右同时按住时，以最后按下的方向为准；松开它之后如果另一个还按着，
+ * 就换成另一个方向，并从松开的那一刻重新开始计 DAS。
+ *
+ * Key down/up state with press timestamps (in logic ticks) for the
+ * engine-side auto shift. Pure Java, no JavaFX.
+ */
+public final class KeyState {
+
+    private final boolean[] down = new boolean[EventType.values().length];
+    private final long[] pressTick = new long[EventType.values().length];
+
+    /** 当前生效的左右方向（LEFT / RIGHT），没有则为 null */
+    private EventType shiftDirection;
+    private long shiftStartTick;
+
+    /**
+     * 按下按键。已经是按下状态（系统的按键重复）则忽略并返回 false。
+     */
+    public boolean press(EventType key, long tick) {
+        int i = key.ordinal();
+        if (down[i]) {
+            return false;
+        }
+        down[i] = true;
+        pressTick[i] = tick;
+
+        if (key == EventType.LEFT || key == EventType.RIGHT) {
+            shiftDirection = key;
+            shiftStartTick = tick;
+        }
+        return true;
+    }
+
+    /** 松开按键（没按着也没关系） */
+    public void release(EventType key, long tick) {
+        down[key.ordinal()] = false;
+
+        if (key == shiftDirection) {
+            EventType other = key == EventType.LEFT ? EventType.RIGHT : EventType.LEFT;
+            if (down[other.ordinal()]) {
+                shiftDirection = other;
+                shiftStartTick = tick;
+            } else {
+                shiftDirection = null;
+            }
+        }
+    }
+
+    /** 复制另一个 KeyState 的全部状态（存档 / 回放用） */
+    public void copyFrom(KeyState other) {
+        System.arraycopy(other.down, 0, down, 0, down.length);
+        System.arraycopy(other.pressTick, 0, pressTick, 0, pressTick.length);
+        shiftDirection = other.shiftDirection;
+        shiftStartTick = other.shiftStartTick;
+    }
+
+    /** 全部松开（新游戏等） */
+    public void releaseAll() {
+        Arrays.fill(down, false);
+        shiftDirection = null;
+    }
+
+    public boolean isDown(EventType key) {
+        return down[key.ordinal()];
+    }
+
+    /** 按下时的 tick（只有 isDown 为 true 时有意义） */
+    public long getPressTick(EventType key) {
+        return pressTick[key.ordinal()];
+    }
+
+    public EventType getShiftDirection() {
+        return shiftDirection;
+    }
+
+    /** 当前方向开始自动连移计时的 tick */
+    public long getShiftStartTick() {
+        return shiftStartTick;
+    }
+}
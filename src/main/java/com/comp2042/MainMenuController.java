@@ -21,7 +21,7 @@ public class MainMenuController {
         GuiController gui = loader.getController();
 
         // 普通模式：bombMode = false
-        new GameController(gui, false);
+        GameController.start(gui, false);
 
         Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
         stage.setScene(new Scene(root));
@@ -36,7 +36,7 @@ public class MainMenuController {
         GuiController gui = loader.getController();
 
         // 炸弹模式：bombMode = true
-        new GameController(gui, true);
+        GameController.start(gui, true);
 
         Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
         stage.setScene(new Scene(root));
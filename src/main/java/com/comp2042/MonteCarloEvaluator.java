@@ -0,0 +1,427 @@
+package com.comp2042;
+
+import com.comp2042.logic.bricks.BrickShape;
+import com.comp2042.logic.bricks.SplitMix64;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 蒙特卡洛落点评估器（MonteCarloEvaluator），主要用于炸弹模式：
+ * 以后的炸弹落在哪里决定了棋盘到底好不好，静态的 {@link BoardEvaluator}
+ * 看不到这一点。
+ *
+ * 当前方块的每个可达落点都先放一遍，按静态评分最好的 {@link #CANDIDATES} 个
+ * 用大量短的随机 rollout 的平均值来评判。一次 rollout 把方块序列中看不见的
+ * 部分（可见的预览保留）换成新的随机流，用静态评估贪心地下 {@code rolloutPieces}
+ * 个方块（包括炸弹和爆炸），再给最终棋盘打分；顶出记为 {@link #LOSS}。
+ * 一次决策中第 i 次 rollout 对每个候选使用相同的随机方块（公共随机数），
+ * 所以候选之间是在相同的未来上比较的。
+ *
+ * rollout 按轮进行，每轮每个存活候选 {@link #ROUND_ROLLOUTS} 次，分布在
+ * fork-join 池上。每个池线程复用一块临时 SimpleBoard 和一个存档槽，随机流
+ * 原地切换（{@link SplitMix64#setStream}），所以 rollout 不分配对象。
+ * 每轮结束后淘汰明显落后的候选（置信区间完全低于领先者），
+ * 搜索在每个候选达到 {@code maxRollouts} 次、时间预算用完（每次 rollout
+ * 之前检查）或只剩一个候选时停止。
+ *
+ * 随机流由种子和局面哈希导出，所以没有时间预算时同一个局面总是给出
+ * 同样的答案。评估器本身是线程安全的。
+ */
+public final class MonteCarloEvaluator implements PlacementPolicy {
+
+    public static final int DEFAULT_ROLLOUT_PIECES = 6;
+    public static final int DEFAULT_MAX_ROLLOUTS = 2048;
+    public static final long DEFAULT_BUDGET_MILLIS = 100;
+
+    /** 顶出时的 rollout 价值 */
+    public static final double LOSS = -1000;
+
+    /**
+     * 参与 rollout 的落点数：按静态评分最好的几个。
+     * 把预算花在几个靠谱的走法上，比平摊到所有走法上更好。
+     */
+    private static final int CANDIDATES = 8;
+
+    /** 每个候选每轮的 rollout 次数 */
+    private static final int ROUND_ROLLOUTS = 16;
+
+    /** 开始淘汰之前每个候选的 rollout 次数 */
+    private static final int MIN_ROLLOUTS_FOR_CUTOFF = 64;
+
+    /** 淘汰时使用的置信区间宽度，单位为标准误差 */
+    private static final double CUTOFF_Z = 3.0;
+
+    private final BoardEvaluator evaluator;
+    private final int rolloutPieces;
+    private final int maxRollouts;
+    private final long budgetNanos;
+    private final ForkJoinPool pool;
+    private volatile long seed;
+
+    // 每个 rollout 线程一块临时棋盘
+    private final ThreadLocal<Scratch> scratch = new ThreadLocal<>();
+    // 每个调用线程一份候选存档槽
+    private final ThreadLocal<Candidates> candidates = new ThreadLocal<>();
+
+    private static final class Scratch {
+        final SimpleBoard board;
+        // 每一步贪心 rollout 之前的局面
+        final BoardSnapshot step;
+
+        Scratch(BoardSnapshot position) {
+            board = SimpleBoard.fromSnapshot(position);
+            step = board.snapshot();
+        }
+
+        boolean fits(BoardSnapshot position) {
+            BoardState state = board.getBoardState();
+            return state.getRows() == position.getRows()
+                    && state.getCols() == position.getCols()
+                    && board.isBombMode() == position.isBombMode();
+        }
+    }
+
+    /** 一个调用线程的各候选局面和统计数据，按需扩容 */
+    private static final class Candidates {
+        BoardSnapshot[] slots = new BoardSnapshot[0];
+        int[] rotations = new int[0];
+        int[] xs = new int[0];
+        double[] lines = new double[0];
+        double[] prior = new double[0];
+        double[] sum = new double[0];
+        double[] sumSquares = new double[0];
+        int[] rollouts = new int[0];
+        int[] alive = new int[0];
+
+        void ensure(int n) {
+            if (slots.length < n) {
+                // 存档槽保留，原地重填
+                BoardSnapshot[] grown = new BoardSnapshot[n];
+                System.arraycopy(slots, 0, grown, 0, slots.length);
+                slots = grown;
+                rotations = new int[n];
+                xs = new int[n];
+                lines = new double[n];
+                prior = new double[n];
+                sum = new double[n];
+                sumSquares = new double[n];
+                rollouts = new int[n];
+                alive = new int[n];
+            }
+        }
+    }
+
+    /** 默认 rollout 长度、次数和预算，公共池，随机种子 */
+    public MonteCarloEvaluator() {
+        this(BoardEvaluator.DEFAULT, DEFAULT_ROLLOUT_PIECES, DEFAULT_MAX_ROLLOUTS, DEFAULT_BUDGET_MILLIS,
+                ForkJoinPool.commonPool(), SplitMix64.randomSeed());
+    }
+
+    /**
+     * @param rolloutPieces 每次 rollout 在候选落点之后下的方块数
+     * @param maxRollouts   每个候选最多的 rollout 次数
+     * @param budgetMillis  每次决策的时间预算；0 = 不限（只看 maxRollouts）
+     * @param seed          rollout 随机流的主种子
+     */
+    public MonteCarloEvaluator(BoardEvaluator evaluator, int rolloutPieces, int maxRollouts,
+                               long budgetMillis, ForkJoinPool pool, long seed) {
+        if (rolloutPieces < 1) {
+            throw new IllegalArgumentException("rolloutPieces must be at least 1: " + rolloutPieces);
+        }
+        if (maxRollouts < 1) {
+            throw new IllegalArgumentException("maxRollouts must be at least 1: " + maxRollouts);
+        }
+        if (budgetMillis < 0) {
+            throw new IllegalArgumentException("budgetMillis must not be negative: " + budgetMillis);
+        }
+        this.evaluator = evaluator;
+        this.rolloutPieces = rolloutPieces;
+        this.maxRollouts = maxRollouts;
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.pool = pool;
+        this.seed = seed;
+    }
+
+    /** 为之后决策的 rollout 随机流设置新的主种子 */
+    @Override
+    public void reseed(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public Placement choose(SimpleBoard board) {
+        return choose(board.snapshot());
+    }
+
+    /** 给定局面下当前方块的最佳落点 */
+    @Override
+    public Placement choose(BoardSnapshot position) {
+        long start = System.nanoTime();
+        Scratch s = scratchFor(position);
+        SimpleBoard board = s.board;
+        Candidates c = candidates.get();
+        if (c == null) {
+            c = new Candidates();
+            candidates.set(c);
+        }
+
+        board.restore(position);
+        long master = SplitMix64.mix(seed ^ board.getPositionHash() ^ board.getGeneratorHash());
+
+        // 每个可达落点先放一次，它的存档槽就是落地后的棋盘
+        List<BrickShape> shapes = position.brick.getShapes();
+        int cols = position.getCols();
+        int placements = 0;
+        for (BrickShape shape : shapes) {
+            placements += cols - shape.getMaxX() + shape.getMinX();
+        }
+        c.ensure(placements);
+        int count = 0;
+        for (int r = 0; r < shapes.size(); r++) {
+            BrickShape shape = shapes.get(r);
+            for (int x = -shape.getMinX(); x <= cols - 1 - shape.getMaxX(); x++) {
+                board.restore(position);
+                if (!Placement.moveTo(board, r, x)) {
+                    continue;
+                }
+                int lines = land(board);
+                if (c.slots[count] == null || !fits(c.slots[count], position)) {
+                    c.slots[count] = board.snapshot();
+                } else {
+                    board.snapshot(c.slots[count]);
+                }
+                c.rotations[count] = r;
+                c.xs[count] = x;
+                c.lines[count] = evaluator.linesValue(lines);
+                c.prior[count] = evaluator.evaluate(board.getBoardState(), lines);
+                c.sum[count] = 0;
+                c.sumSquares[count] = 0;
+                c.rollouts[count] = 0;
+                c.alive[count] = count;
+                count++;
+            }
+        }
+        if (count == 0) {
+            // 哪里都到不了：原地落下
+            return new Placement(position.rotation, position.x);
+        }
+
+        int alive = keepBestByPrior(c, count);
+        int done = 0;
+        while (alive > 1 && done < maxRollouts) {
+            int batch = Math.min(ROUND_ROLLOUTS, maxRollouts - done);
+            pool.invoke(new RolloutTask(this, c, master, done, batch, start, 0, alive));
+            done += batch;
+
+            if (outOfTime(start)) {
+                break;
+            }
+            if (done >= MIN_ROLLOUTS_FOR_CUTOFF) {
+                alive = cut(c, alive);
+            }
+        }
+
+        // 存活候选中平均值最好的，同分取枚举顺序中的第一个
+        int best = c.alive[0];
+        if (done > 0) {
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < alive; i++) {
+                int k = c.alive[i];
+                double value = mean(c, k);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = k;
+                }
+            }
+        }
+        return new Placement(c.rotations[best], c.xs[best]);
+    }
+
+    /**
+     * 保留按静态评分最好的 CANDIDATES 个落点，按枚举顺序放在 c.alive 前部；
+     * 返回个数。
+     */
+    private static int keepBestByPrior(Candidates c, int count) {
+        if (count <= CANDIDATES) {
+            return count;
+        }
+        // 部分选择排序：c.alive[0..CANDIDATES) 得到最好的，同分取靠前的
+        for (int i = 0; i < CANDIDATES; i++) {
+            int best = i;
+            for (int j = i + 1; j < count; j++) {
+                if (c.prior[c.alive[j]] > c.prior[c.alive[best]]
+                        || (c.prior[c.alive[j]] == c.prior[c.alive[best]] && c.alive[j] < c.alive[best])) {
+                    best = j;
+                }
+            }
+            int k = c.alive[i];
+            c.alive[i] = c.alive[best];
+            c.alive[best] = k;
+        }
+        Arrays.sort(c.alive, 0, CANDIDATES);
+        return CANDIDATES;
+    }
+
+    private boolean outOfTime(long start) {
+        return budgetNanos > 0 && System.nanoTime() - start >= budgetNanos;
+    }
+
+    /** 候选的价值：自己消的行加上 rollout 的平均值 */
+    private static double mean(Candidates c, int k) {
+        return c.lines[k] + c.sum[k] / c.rollouts[k];
+    }
+
+    /**
+     * 淘汰置信上界低于领先者置信下界的所有候选；返回新的存活个数
+     * （按枚举顺序放在 c.alive 前部）。
+     */
+    private static int cut(Candidates c, int alive) {
+        int leader = -1;
+        double leaderMean = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < alive; i++) {
+            int k = c.alive[i];
+            double mean = mean(c, k);
+            if (mean > leaderMean) {
+                leaderMean = mean;
+                leader = k;
+            }
+        }
+        double leaderLow = leaderMean - CUTOFF_Z * standardError(c, leader);
+
+        int kept = 0;
+        for (int i = 0; i < alive; i++) {
+            int k = c.alive[i];
+            if (k == leader || mean(c, k) + CUTOFF_Z * standardError(c, k) >= leaderLow) {
+                c.alive[kept++] = k;
+            }
+        }
+        return kept;
+    }
+
+    private static double standardError(Candidates c, int k) {
+        int n = c.rollouts[k];
+        double mean = c.sum[k] / n;
+        double variance = Math.max(0, c.sumSquares[k] / n - mean * mean);
+        return Math.sqrt(variance / n);
+    }
+
+    /** 为一段存活候选跑一轮 rollout。从不序列化 */
+    @SuppressWarnings("serial")
+    private static final class RolloutTask extends RecursiveAction {
+        private final MonteCarloEvaluator evaluator;
+        private final Candidates c;
+        private final long master;
+        private final int first;
+        private final int batch;
+        private final long start;
+        private final int from;
+        private final int to;
+
+        RolloutTask(MonteCarloEvaluator evaluator, Candidates c, long master, int first, int batch, long start,
+                    int from, int to) {
+            this.evaluator = evaluator;
+            this.c = c;
+            this.master = master;
+            this.first = first;
+            this.batch = batch;
+            this.start = start;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                int k = c.alive[from];
+                Scratch s = evaluator.scratchFor(c.slots[k]);
+                double sum = 0;
+                double sumSquares = 0;
+                int n = 0;
+                // 第一次 rollout 总是执行，保证每个候选都有平均值
+                for (int i = first; i < first + batch && (i == 0 || !evaluator.outOfTime(start)); i++) {
+                    double value = evaluator.rollout(s, c.slots[k], master, i);
+                    sum += value;
+                    sumSquares += value * value;
+                    n++;
+                }
+                // 这一轮只有这个任务会改候选 k
+                c.sum[k] += sum;
+                c.sumSquares[k] += sumSquares;
+                c.rollouts[k] += n;
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RolloutTask(evaluator, c, master, first, batch, start, from, mid),
+                    new RolloutTask(evaluator, c, master, first, batch, start, mid, to));
+        }
+    }
+
+    /**
+     * 从落地后的候选棋盘开始的一次 rollout：看不见的方块来自随机流
+     * (master, index)，每个方块放在静态评估最喜欢的位置。返回沿途消的行
+     * 加上最终棋盘的价值，顶出时返回 LOSS。
+     */
+    private double rollout(Scratch s, BoardSnapshot start, long master, int index) {
+        SimpleBoard board = s.board;
+        board.restore(start);
+        board.reseedGenerator(master, index);
+        int cols = board.getBoardState().getCols();
+
+        double lines = 0;
+        for (int piece = 0; piece < rolloutPieces; piece++) {
+            if (board.createNewBrick()) {
+                return LOSS;
+            }
+            board.snapshot(s.step);
+            List<BrickShape> shapes = board.getCurrentBrick().getShapes();
+
+            double best = Double.NEGATIVE_INFINITY;
+            int bestRotation = 0;
+            int bestX = 0;
+            for (int r = 0; r < shapes.size(); r++) {
+                BrickShape shape = shapes.get(r);
+                for (int x = -shape.getMinX(); x <= cols - 1 - shape.getMaxX(); x++) {
+                    if (Placement.moveTo(board, r, x)) {
+                        double value = evaluator.evaluate(board.getBoardState(), land(board));
+                        if (value > best) {
+                            best = value;
+                            bestRotation = r;
+                            bestX = x;
+                        }
+                    }
+                    board.restore(s.step);
+                }
+            }
+            if (best == Double.NEGATIVE_INFINITY) {
+                return LOSS;
+            }
+            Placement.moveTo(board, bestRotation, bestX);
+            lines += evaluator.linesValue(land(board));
+        }
+        return lines + evaluator.evaluate(board.getBoardState(), 0);
+    }
+
+    private Scratch scratchFor(BoardSnapshot position) {
+        Scratch s = scratch.get();
+        if (s == null || !s.fits(position)) {
+            s = new Scratch(position);
+            scratch.set(s);
+        }
+        return s;
+    }
+
+    private static boolean fits(BoardSnapshot slot, BoardSnapshot position) {
+        return slot.getRows() == position.getRows() && slot.getCols() == position.getCols()
+                && slot.isBombMode() == position.isBombMode();
+    }
+
+    /** 硬降、合并（或爆炸）并消行；返回消掉的行数 */
+    private static int land(SimpleBoard board) {
+        board.hardDrop();
+        board.mergeBrickToBackground();
+        return board.clearRows().getLinesRemoved();
+    }
+}
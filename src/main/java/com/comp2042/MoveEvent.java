@@ -1,20 +1,35 @@
 // 移动事件类：把一次输入动作（比如左移、右移、下落、旋转）封装成一个对象。
 // 事件里包含动作类型（EventType）以及事件来源（用户/系统）。
 // GUI 通过创建 MoveEvent 来把按键动作传给 GameController。
+// 机器人的动作还带上它所针对的方块编号（GameEngine.getPieceId()），
+// 方块已经锁定时这个动作会被丢弃，不会落到下一个方块上。
 //
 // Move event class. Wraps a single action such as left, right, down, or rotate.
 // Contains both the event type and where it came from (user or game thread).
 // GUI uses MoveEvent to forward keyboard input to the GameController.
+// Bot actions also carry the id of the piece they were planned for and are
+// dropped once that piece has locked.
 
 package com.comp2042;
 
 public final class MoveEvent {
+
+    /** 不针对某个特定方块（键盘输入） */
+    public static final long ANY_PIECE = -1;
+
     private final EventType eventType;
     private final EventSource eventSource;
+    private final long pieceId;
 
     public MoveEvent(EventType eventType, EventSource eventSource) {
+        this(eventType, eventSource, ANY_PIECE);
+    }
+
+    /** 只作用于编号为 pieceId 的方块（见 GameEngine.getPieceId()） */
+    public MoveEvent(EventType eventType, EventSource eventSource, long pieceId) {
         this.eventType = eventType;
         this.eventSource = eventSource;
+        this.pieceId = pieceId;
     }
 
     public EventType getEventType() {
@@ -24,4 +39,8 @@ public final class MoveEvent {
     public EventSource getEventSource() {
         return eventSource;
     }
+
+    public long getPieceId() {
+        return pieceId;
+    }
 }
@@ -1,11 +1,14 @@
 package com.comp2042;
 
+import com.comp2042.logic.bricks.BrickShape;
+
 import java.awt.Point;
 
 /**
  * 负责和“移动相关”的规则：
- * - 尝试把当前方块平移 (dx, dy)
+ * - 判断当前方块能否平移 (dx, dy)
  * - 判断是否会碰撞或越界
+ * - 计算硬降能下落的距离
  *
  * 不保存任何状态，只根据传入的棋盘 / 形状 / 位置做计算。
  */
@@ -14,41 +17,35 @@ public class MovementController {
     /**
      * 检查给定方块在指定 offset 下是否与背景棋盘发生碰撞或越界。
      */
-    public boolean hasCollision(int[][] boardMatrix, int[][] shape, Point offset) {
-        return MatrixOperations.intersect(
-                boardMatrix,
-                shape,
-                offset.x,
-                offset.y
-        );
+    public boolean hasCollision(BoardState boardState, BrickShape shape, Point offset) {
+        return boardState.intersects(shape, offset.x, offset.y);
     }
 
     /**
-     * 尝试把当前方块从 currentOffset 平移 (dx, dy)。
+     * 检查当前方块能否从 currentOffset 平移 (dx, dy)。
+     * 只做判断，不创建新的坐标对象，由调用方自己更新位置。
      *
      * @param boardState   背景棋盘状态
-     * @param shape        当前方块形状矩阵
+     * @param shape        当前方块形状（只读）
      * @param currentOffset 当前坐标
      * @param dx           X 方向增量
      * @param dy           Y 方向增量
-     * @return 新的坐标（可移动）; 若发生碰撞则返回 null
+     * @return true = 可以移动；false = 会碰撞或越界
      */
-    public Point tryTranslate(BoardState boardState,
-                              int[][] shape,
-                              Point currentOffset,
-                              int dx,
-                              int dy) {
-
-        Point newOffset = new Point(currentOffset);
-        newOffset.translate(dx, dy);
+    public boolean canTranslate(BoardState boardState,
+                                BrickShape shape,
+                                Point currentOffset,
+                                int dx,
+                                int dy) {
 
-        boolean conflict = MatrixOperations.intersect(
-                boardState.getMatrix(),
-                shape,
-                newOffset.x,
-                newOffset.y
-        );
+        return !boardState.intersects(shape, currentOffset.x + dx, currentOffset.y + dy);
+    }
 
-        return conflict ? null : newOffset;
+    /**
+     * 当前方块从 currentOffset 竖直往下最多能落几格（硬降 / 落点用）。
+     * 直接查 BoardState 维护的列高度，不需要一格一格试探。
+     */
+    public int dropDistance(BoardState boardState, BrickShape shape, Point currentOffset) {
+        return boardState.dropDistance(shape, currentOffset.x, currentOffset.y);
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.comp2042;
 
+import com.comp2042.logic.bricks.BrickShape;
 import javafx.scene.layout.GridPane;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
@@ -7,13 +8,21 @@ import javafx.scene.shape.Rectangle;
 
 /**
  * 专门负责绘制右侧“Next”预览方块的小工具类。
- * 不保存状态，传什么画什么。
+ * 第一次绘制时建好 4x4 的格子，之后只改颜色；
+ * 下一块的形状没变（队列没有前进）就什么都不做。
  */
 public class NextBrickRenderer {
 
     private final int previewBrickSize;
     private final Paint[] brickColors;
 
+    // preview cells, created once per panel
+    private GridPane panel;
+    private Rectangle[][] cells;
+
+    // shape currently shown (shared read-only instance)
+    private BrickShape shownShape;
+
     public NextBrickRenderer(int previewBrickSize, Paint[] brickColors) {
         this.previewBrickSize = previewBrickSize;
         this.brickColors = brickColors;
@@ -28,21 +37,37 @@ public class NextBrickRenderer {
             return;
         }
 
-        nextBrickPanel.getChildren().clear();
-
-        int[][] data = viewData.getNextBrickData();
-        if (data == null) {
+        BrickShape shape = viewData.getNextBrickShape();
+        if (shape == null || (shape == shownShape && nextBrickPanel == panel)) {
+            // queue did not advance
             return;
         }
+        shownShape = shape;
+
+        if (nextBrickPanel != panel || cells == null || cells.length != shape.getSize()) {
+            createCells(nextBrickPanel, shape.getSize());
+        }
+
+        for (int i = 0; i < shape.getSize(); i++) {
+            for (int j = 0; j < shape.getSize(); j++) {
+                cells[i][j].setFill(getFillColor(shape.getCell(i, j)));
+            }
+        }
+    }
+
+    private void createCells(GridPane nextBrickPanel, int size) {
+        nextBrickPanel.getChildren().clear();
+        panel = nextBrickPanel;
+        cells = new Rectangle[size][size];
 
-        for (int i = 0; i < data.length; i++) {
-            for (int j = 0; j < data[i].length; j++) {
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
 
                 Rectangle r = new Rectangle(previewBrickSize, previewBrickSize);
-                r.setFill(getFillColor(data[i][j]));
                 r.setArcWidth(5);
                 r.setArcHeight(5);
 
+                cells[i][j] = r;
                 nextBrickPanel.add(r, j, i);
             }
         }
@@ -0,0 +1,88 @@
+package com.comp2042;
+
+import com.comp2042.logic.bricks.Brick;
+
+/**
+ * 一次落子：当前方块转到第 rotation 个形状、左上角移到第 x 列，然后硬降。
+ * 到达方式和玩家一样：先在出生位置原地旋转，再左右平移，最后硬降，
+ * 所以 AI 算出来的落点玩家也一定能按出来。
+ *
+ * A final placement for the current brick (rotation index + column), reached
+ * by rotating in place, shifting and hard dropping.
+ */
+public final class Placement {
+
+    private final int rotation;
+    private final int x;
+
+    public Placement(int rotation, int x) {
+        this.rotation = rotation;
+        this.x = x;
+    }
+
+    public int getRotation() {
+        return rotation;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    /** 从当前旋转转到目标旋转需要旋转几次（只能往一个方向转） */
+    static int rotationsBetween(Brick brick, int fromRotation, int toRotation) {
+        int count = brick.getShapes().size();
+        return ((toRotation - fromRotation) % count + count) % count;
+    }
+
+    /** 在棋盘上直接把当前方块转好、移到目标列（不落地），见 {@link #moveTo(SimpleBoard, int, int)} */
+    public boolean moveTo(SimpleBoard board) {
+        return moveTo(board, rotation, x);
+    }
+
+    /**
+     * 在棋盘上直接把当前方块转到目标形状、移到目标列（不落地）。
+     * 中途被挡住返回 false，这时方块停在半路，调用方自己 restore。
+     */
+    public static boolean moveTo(SimpleBoard board, int rotation, int x) {
+        int turns = rotationsBetween(board.getCurrentBrick(), board.getCurrentRotation(), rotation);
+        for (int i = 0; i < turns; i++) {
+            if (!board.rotateLeftBrick()) {
+                return false;
+            }
+        }
+        while (board.getCurrentX() < x) {
+            if (!board.moveBrickRight()) {
+                return false;
+            }
+        }
+        while (board.getCurrentX() > x) {
+            if (!board.moveBrickLeft()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 通过引擎执行这次落子（旋转、平移、硬降），和玩家按键的效果完全一样。
+     * 只能用于 SimpleBoard 上的引擎。
+     */
+    public void execute(GameEngine engine) {
+        SimpleBoard board = (SimpleBoard) engine.getBoard();
+        int turns = rotationsBetween(board.getCurrentBrick(), board.getCurrentRotation(), rotation);
+        for (int i = 0; i < turns; i++) {
+            engine.step(EventType.ROTATE);
+        }
+        int dx = x - board.getCurrentX();
+        EventType shift = dx > 0 ? EventType.RIGHT : EventType.LEFT;
+        for (int i = Math.abs(dx); i > 0; i--) {
+            engine.step(shift);
+        }
+        engine.step(EventType.HARD_DROP);
+    }
+
+    @Override
+    public String toString() {
+        return "Placement[rotation=" + rotation + ", x=" + x + "]";
+    }
+}
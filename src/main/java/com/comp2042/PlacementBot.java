@@ -0,0 +1,399 @@
+package com.comp2042;
+
+import com.comp2042.logic.bricks.BrickShape;
+import com.comp2042.logic.bricks.SplitMix64;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 落点搜索机器人（PlacementBot）：尝试当前方块所有能到达的最终落点
+ * （每种旋转 × 每一列），再对每个结果棋盘尝试后续方块的所有落点，
+ * 总共搜索 {@code depth} 个方块，用 {@link BoardEvaluator} 给最终棋盘打分。
+ * 一个落点的价值 = 它的后续能达到的最好棋盘。
+ *
+ * 深度 2 用当前方块和预览（{@code getNextBrick()}），也就是玩家能看到的全部。
+ * 更深的搜索会从棋盘生成器的副本里取后面的方块，即知道隐藏的真实序列；
+ * 只允许在显式的 oracle 模式下使用（压力测试、离线分析），GUI 机器人从不使用。
+ *
+ * {@code width} > 0 时是选择性搜索：除最后一个方块外，先用静态评估给所有
+ * 落点打分，只继续搜索最好的 {@code width} 个（根节点 2 × width 个）。
+ * 深度 4、宽度 2 每个方块的开销和穷举的深度 2 差不多。
+ *
+ * 第一层候选在 fork-join 线程池上并行搜索。每个池线程在自己的临时
+ * SimpleBoard 上走子，并从每层的存档槽恢复，所以搜索用的是真实规则
+ * （包括炸弹爆炸），每个节点不分配对象。两个方块的搜索约一毫秒，
+ * 远低于 20 级时的一个重力 tick。
+ *
+ * 可选的共享 {@link TranspositionTable} 记住已搜索的节点，键由局面哈希、
+ * 生成器状态和剩余深度组成。没有 hold 时方块顺序是固定的，一次搜索内部
+ * 只有消行才会让局面重复；局面被再次搜索时（重新决策、分析）置换表才有用。
+ * 只在评估函数、宽度和深度都相同的机器人之间共享同一张表。
+ *
+ * 结果与线程调度无关：不管节点值来自置换表还是现算，都舍入到 float
+ * （表的精度），同分时取枚举顺序中的第一个候选。机器人本身是线程安全的。
+ */
+public final class PlacementBot implements PlacementPolicy {
+
+    /** 放下后下一个方块无法生成时的落点价值 */
+    private static final double TOP_OUT = -1e9;
+
+    /** 每个 fork-join 叶子任务处理的候选数 */
+    private static final int LEAF_SIZE = 2;
+
+    /** 玩家能看到的方块数：当前方块和预览 */
+    public static final int VISIBLE_BRICKS = 2;
+
+    private final BoardEvaluator evaluator;
+    private final int depth;
+    private final int width;
+    private final boolean oracle;
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+
+    // 每个搜索线程一块临时棋盘
+    private final ThreadLocal<Scratch> scratch = new ThreadLocal<>();
+
+    /**
+     * 故意写成静态类：线程局部变量的值不能反过来引用机器人（进而引用它的
+     * ThreadLocal），否则长寿的池线程里这个条目永远不会被清掉，
+     * 每个被丢弃的机器人都会泄漏它的棋盘。
+     */
+    private static final class Scratch {
+        final SimpleBoard board;
+        // slots[ply]：这一层的方块放下之前的局面
+        final BoardSnapshot[] slots;
+        final TranspositionTable.Entry entry = new TranspositionTable.Entry();
+        // 选择性搜索：每层能到达的落点、它们的静态评分和选中的下标
+        final int[][] rotations;
+        final int[][] xs;
+        final double[][] statics;
+        final int[][] picks;
+
+        Scratch(BoardSnapshot position, int depth) {
+            board = SimpleBoard.fromSnapshot(position);
+            slots = new BoardSnapshot[depth];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = board.snapshot();
+            }
+            // 最多 4 种旋转 × 每一列
+            int max = 4 * position.getCols();
+            rotations = new int[depth][max];
+            xs = new int[depth][max];
+            statics = new double[depth][max];
+            picks = new int[depth][max];
+        }
+
+        boolean fits(BoardSnapshot position) {
+            BoardState state = board.getBoardState();
+            return state.getRows() == position.getRows()
+                    && state.getCols() == position.getCols()
+                    && board.isBombMode() == position.isBombMode();
+        }
+    }
+
+    /** 默认权重，当前 + 下一个方块，公共 fork-join 池，不用置换表 */
+    public PlacementBot() {
+        this(BoardEvaluator.DEFAULT, 2, ForkJoinPool.commonPool(), null);
+    }
+
+    /** 只穷举搜索看得见的方块（深度最多 {@link #VISIBLE_BRICKS}） */
+    public PlacementBot(BoardEvaluator evaluator, int depth, ForkJoinPool pool, TranspositionTable table) {
+        this(evaluator, depth, 0, false, pool, table);
+    }
+
+    /**
+     * @param depth  搜索的方块数（1 = 只看当前方块）
+     * @param width  每个方块继续搜索的落点数（根节点 2 × width）；0 = 全部
+     * @param oracle 允许 depth > VISIBLE_BRICKS，即读取隐藏的方块序列
+     * @param table  共享的置换表，可以为 null
+     */
+    public PlacementBot(BoardEvaluator evaluator, int depth, int width, boolean oracle,
+                        ForkJoinPool pool, TranspositionTable table) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("depth must be at least 1: " + depth);
+        }
+        if (depth > VISIBLE_BRICKS && !oracle) {
+            throw new IllegalArgumentException("depth " + depth + " reads hidden bricks, only allowed in oracle mode");
+        }
+        if (width < 0) {
+            throw new IllegalArgumentException("width must not be negative: " + width);
+        }
+        this.evaluator = evaluator;
+        this.depth = depth;
+        this.width = width;
+        this.oracle = oracle;
+        this.pool = pool;
+        this.table = table;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public boolean isOracle() {
+        return oracle;
+    }
+
+    @Override
+    public Placement choose(SimpleBoard board) {
+        return choose(board.snapshot());
+    }
+
+    /** 给定局面下当前方块的最佳落点 */
+    @Override
+    public Placement choose(BoardSnapshot position) {
+        List<BrickShape> shapes = position.brick.getShapes();
+        int cols = position.getCols();
+
+        // 枚举 (rotation, x)；能否到达由搜索检查
+        int count = 0;
+        for (BrickShape shape : shapes) {
+            count += cols - shape.getMaxX() + shape.getMinX();
+        }
+        int[] rotations = new int[count];
+        int[] xs = new int[count];
+        int n = 0;
+        for (int r = 0; r < shapes.size(); r++) {
+            BrickShape shape = shapes.get(r);
+            for (int x = -shape.getMinX(); x <= cols - 1 - shape.getMaxX(); x++) {
+                rotations[n] = r;
+                xs[n] = x;
+                n++;
+            }
+        }
+
+        if (width > 0 && depth > 1) {
+            // 选择性根节点：只搜索静态评分最好的 2 × width 个落点
+            Scratch s = scratchFor(position);
+            s.board.restore(position);
+            s.board.snapshot(s.slots[0]);
+            int scored = scorePlacements(s, 0);
+            int picked = pick(s.statics[0], scored, 2 * width, s.picks[0]);
+            count = picked;
+            rotations = new int[count];
+            xs = new int[count];
+            for (int i = 0; i < picked; i++) {
+                rotations[i] = s.rotations[0][s.picks[0][i]];
+                xs[i] = s.xs[0][s.picks[0][i]];
+            }
+        }
+
+        if (table != null) {
+            table.newSearch();
+        }
+        double[] values = new double[count];
+        pool.invoke(new SearchTask(this, position, rotations, xs, values, 0, count));
+
+        int best = -1;
+        for (int i = 0; i < count; i++) {
+            if (values[i] != Double.NEGATIVE_INFINITY && (best < 0 || values[i] > values[best])) {
+                best = i;
+            }
+        }
+        if (best < 0) {
+            // 哪里都到不了：原地落下
+            return new Placement(position.rotation, position.x);
+        }
+        return new Placement(rotations[best], xs[best]);
+    }
+
+    /** 把候选区间对半拆分，直到 LEAF_SIZE。从不序列化 */
+    @SuppressWarnings("serial")
+    private static final class SearchTask extends RecursiveAction {
+        private final PlacementBot bot;
+        private final BoardSnapshot position;
+        private final int[] rotations;
+        private final int[] xs;
+        private final double[] values;
+        private final int from;
+        private final int to;
+
+        SearchTask(PlacementBot bot, BoardSnapshot position, int[] rotations, int[] xs, double[] values,
+                   int from, int to) {
+            this.bot = bot;
+            this.position = position;
+            this.rotations = rotations;
+            this.xs = xs;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                Scratch s = bot.scratchFor(position);
+                for (int i = from; i < to; i++) {
+                    values[i] = bot.evaluatePlacement(s, position, rotations[i], xs[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SearchTask(bot, position, rotations, xs, values, from, mid),
+                    new SearchTask(bot, position, rotations, xs, values, mid, to));
+        }
+    }
+
+    private Scratch scratchFor(BoardSnapshot position) {
+        Scratch s = scratch.get();
+        if (s == null || !s.fits(position)) {
+            s = new Scratch(position, depth);
+            scratch.set(s);
+        }
+        return s;
+    }
+
+    /** 一个第一层落点的价值；到达不了时为 NEGATIVE_INFINITY */
+    private double evaluatePlacement(Scratch s, BoardSnapshot position, int rotation, int x) {
+        SimpleBoard board = s.board;
+        board.restore(position);
+        if (!Placement.moveTo(board, rotation, x)) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        int lines = land(board);
+        if (depth == 1) {
+            return evaluator.evaluate(board.getBoardState(), lines);
+        }
+        return evaluator.linesValue(lines) + searchNode(s, 1);
+    }
+
+    /**
+     * 生成这一层的方块，返回它所有落点中的最好价值
+     * （包括从这里开始消掉的行）。
+     */
+    private double searchNode(Scratch s, int ply) {
+        SimpleBoard board = s.board;
+        if (board.createNewBrick()) {
+            return TOP_OUT + evaluator.evaluate(board.getBoardState(), 0);
+        }
+
+        int remaining = depth - ply;
+        long key = 0;
+        if (table != null) {
+            key = board.getPositionHash() ^ SplitMix64.mix(board.getGeneratorHash() + remaining);
+            if (table.probe(key, remaining, s.entry)) {
+                return s.entry.getValue();
+            }
+        }
+
+        BoardSnapshot slot = s.slots[ply];
+        board.snapshot(slot);
+
+        double best = Double.NEGATIVE_INFINITY;
+        int bestRotation = 0;
+        int bestX = board.getCurrentX();
+        if (width > 0 && remaining >= 2) {
+            // 选择性：只继续搜索静态评分最好的 width 个落点
+            int scored = scorePlacements(s, ply);
+            int picked = pick(s.statics[ply], scored, width, s.picks[ply]);
+            for (int i = 0; i < picked; i++) {
+                int j = s.picks[ply][i];
+                int r = s.rotations[ply][j];
+                int x = s.xs[ply][j];
+                Placement.moveTo(board, r, x);
+                double value = evaluator.linesValue(land(board)) + searchNode(s, ply + 1);
+                if (value > best) {
+                    best = value;
+                    bestRotation = r;
+                    bestX = x;
+                }
+                board.restore(slot);
+            }
+        } else {
+            List<BrickShape> shapes = board.getCurrentBrick().getShapes();
+            int cols = board.getBoardState().getCols();
+            for (int r = 0; r < shapes.size(); r++) {
+                BrickShape shape = shapes.get(r);
+                for (int x = -shape.getMinX(); x <= cols - 1 - shape.getMaxX(); x++) {
+                    if (Placement.moveTo(board, r, x)) {
+                        int lines = land(board);
+                        double value = remaining == 1
+                                ? evaluator.evaluate(board.getBoardState(), lines)
+                                : evaluator.linesValue(lines) + searchNode(s, ply + 1);
+                        if (value > best) {
+                            best = value;
+                            bestRotation = r;
+                            bestX = x;
+                        }
+                    }
+                    board.restore(slot);
+                }
+            }
+        }
+        if (best == Double.NEGATIVE_INFINITY) {
+            // 方块完全动不了：按当前棋盘评估
+            best = TOP_OUT / 2 + evaluator.evaluate(board.getBoardState(), 0);
+        }
+
+        // 不管是现算还是查表，精度都一样
+        best = (float) best;
+        if (table != null) {
+            table.store(key, remaining, best, bestRotation, bestX);
+        }
+        return best;
+    }
+
+    /**
+     * 用静态评估给 s.slots[ply] 中方块的每个可达落点打分，结果写入
+     * s.rotations/xs/statics[ply]，返回落点个数。结束后棋盘回到 s.slots[ply]。
+     */
+    private int scorePlacements(Scratch s, int ply) {
+        SimpleBoard board = s.board;
+        BoardSnapshot slot = s.slots[ply];
+        List<BrickShape> shapes = board.getCurrentBrick().getShapes();
+        int cols = board.getBoardState().getCols();
+        int n = 0;
+        for (int r = 0; r < shapes.size(); r++) {
+            BrickShape shape = shapes.get(r);
+            for (int x = -shape.getMinX(); x <= cols - 1 - shape.getMaxX(); x++) {
+                if (Placement.moveTo(board, r, x)) {
+                    s.rotations[ply][n] = r;
+                    s.xs[ply][n] = x;
+                    s.statics[ply][n] = evaluator.evaluate(board.getBoardState(), land(board));
+                    n++;
+                }
+                board.restore(slot);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * 把 values[0..n) 中最好的 k 个的下标按升序写入 out
+     * （同分取下标小的），返回个数。
+     */
+    private static int pick(double[] values, int n, int k, int[] out) {
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (size == k && values[i] <= values[out[size - 1]]) {
+                continue;
+            }
+            // 插入 out，按分数保持有序（最好的在前）
+            int at = size == k ? size - 1 : size;
+            while (at > 0 && values[out[at - 1]] < values[i]) {
+                out[at] = out[at - 1];
+                at--;
+            }
+            out[at] = i;
+            if (size < k) {
+                size++;
+            }
+        }
+        Arrays.sort(out, 0, size);
+        return size;
+    }
+
+    /** 硬降、合并（或爆炸）并消行；返回消掉的行数 */
+    private static int land(SimpleBoard board) {
+        board.hardDrop();
+        board.mergeBrickToBackground();
+        return board.clearRows().getLinesRemoved();
+    }
+}
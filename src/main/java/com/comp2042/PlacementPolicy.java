@@ -0,0 +1,28 @@
+package com.comp2042;
+
+/**
+ * 落子策略：看当前棋盘，决定当前方块放在哪里。模拟器和 AI 玩家都用它。
+ * 实现可以在棋盘上试走（snapshot / restore），但返回前必须把棋盘恢复原样。
+ *
+ * Chooses where the current brick goes. Implementations are not shared
+ * between threads; every worker creates its own.
+ */
+public interface PlacementPolicy {
+
+    Placement choose(SimpleBoard board);
+
+    /**
+     * 换一个随机种子（模拟器每局开始时调用），之后的随机选择只由它决定。
+     * 不带随机性的策略什么都不用做。
+     */
+    default void reseed(long seed) {
+    }
+
+    /**
+     * 在一个存档上选落点（不碰真正的棋盘），BotPlayer 在自己的线程里用。
+     * 默认从存档建一个临时棋盘；搜索型的策略自己有更省的实现。
+     */
+    default Placement choose(BoardSnapshot position) {
+        return choose(SimpleBoard.fromSnapshot(position));
+    }
+}
@@ -0,0 +1,35 @@
+package com.comp2042;
+
+import com.comp2042.logic.bricks.BrickShape;
+import com.comp2042.logic.bricks.SplitMix64;
+
+import java.util.List;
+
+/**
+ * 随机落子：随机选一个旋转和一个不越界的列。用作基准，以及压测引擎本身的速度。
+ */
+public final class RandomPolicy implements PlacementPolicy {
+
+    private final SplitMix64 random;
+
+    public RandomPolicy(SplitMix64 random) {
+        this.random = random;
+    }
+
+    /** 切到 stream(seed, 0) 这条随机流（原地，不分配） */
+    @Override
+    public void reseed(long seed) {
+        random.setStream(seed, 0);
+    }
+
+    @Override
+    public Placement choose(SimpleBoard board) {
+        List<BrickShape> shapes = board.getCurrentBrick().getShapes();
+        int rotation = random.nextInt(shapes.size());
+        BrickShape shape = shapes.get(rotation);
+
+        int minX = -shape.getMinX();
+        int maxX = board.getBoardState().getCols() - 1 - shape.getMaxX();
+        return new Placement(rotation, minX + random.nextInt(maxX - minX + 1));
+    }
+}
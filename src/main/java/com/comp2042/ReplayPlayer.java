@@ -0,0 +1,378 @@
+package com.comp2042;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 录像播放器：用一个无头 GameEngine 把录下来的输入重新模拟一遍（格式见 ReplayRecorder）。
+ * 不渲染、不等待，只按 tick 推进，所以可以远快于实时（每秒上百万 tick）。
+ *
+ * 位置用逻辑 tick 表示：位于 tick T 时，记录在 T 及之前的输入都已经生效。
+ * 播放时每隔 checkpointInterval 个 tick 存一个 GameSnapshot，
+ * seek 时从不晚于目标的最近存档恢复，再往前模拟不超过一个间隔，不用每次从头开始。
+ *
+ * GUI 可以用 GuiController.attachReplay 接上播放器，getFrame() 给出当前位置的画面。
+ *
+ * Replays a recorded game at full CPU speed, with periodic checkpoints for
+ * fast seeking. Not thread-safe: drive it from one thread (the FX thread
+ * when attached to the GUI).
+ */
+public final class ReplayPlayer implements GameEventListener {
+
+    /** 默认每 10 秒游戏时间存一个档 */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 10 * GameEngine.TICKS_PER_SECOND;
+
+    private static final EventType[] TYPES = EventType.values();
+
+    private static final MoveEvent[] USER_EVENTS = new MoveEvent[TYPES.length];
+    static {
+        for (EventType type : TYPES) {
+            USER_EVENTS[type.ordinal()] = new MoveEvent(type, EventSource.USER);
+        }
+    }
+
+    /* ---- 录像内容 ---- */
+    private final long seed;
+    private final boolean bombMode;
+    private final boolean sevenBag;
+    private final int dasTicks;
+    private final int arrTicks;
+
+    private final long[] entryTicks;
+    private final byte[] entryCodes;
+    private final int entryCount;
+    private final long endTick;
+
+    /* ---- 播放状态 ---- */
+    private final GameEngine engine;
+    private int nextEntry;
+
+    private final int checkpointInterval;
+    /** checkpoints.get(k) 是 tick = k * checkpointInterval 时的存档 */
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+
+    /* ---- 给 GUI 的画面 ---- */
+    private FrameSnapshot frame;
+    private long frameId;
+    private boolean frameDirty = true;
+    private int[][] frameBoard;
+    private boolean boardDirty = true;
+    private int clearSequence;
+    private int lastClearBonus;
+    private int explosionSequence;
+    private List<Point> explosionCells = List.of();
+
+    private static final class Checkpoint {
+        final int nextEntry;
+        final GameSnapshot snapshot;
+
+        Checkpoint(int nextEntry, GameSnapshot snapshot) {
+            this.nextEntry = nextEntry;
+            this.snapshot = snapshot;
+        }
+    }
+
+    public ReplayPlayer(byte[] replay) {
+        this(replay, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * 解析录像并停在 tick 0。录像格式不对时抛 IllegalArgumentException。
+     */
+    public ReplayPlayer(byte[] replay, int checkpointInterval) {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("checkpointInterval must be positive: " + checkpointInterval);
+        }
+        this.checkpointInterval = checkpointInterval;
+
+        Reader in = new Reader(replay);
+        for (byte b : ReplayRecorder.MAGIC) {
+            if (in.readByte() != b) {
+                throw new IllegalArgumentException("not a replay file");
+            }
+        }
+        int version = in.readByte();
+        if (version != ReplayRecorder.VERSION) {
+            throw new IllegalArgumentException("unsupported replay version: " + version);
+        }
+        int flags = in.readByte();
+        bombMode = (flags & ReplayRecorder.FLAG_BOMB) != 0;
+        sevenBag = (flags & ReplayRecorder.FLAG_SEVEN_BAG) != 0;
+
+        long s = 0;
+        for (int i = 0; i < 8; i++) {
+            s = (s << 8) | in.readByte();
+        }
+        seed = s;
+        dasTicks = (int) in.readVarint();
+        arrTicks = (int) in.readVarint();
+
+        // 每条记录至少 1 个字节，按剩余字节数分配就够了
+        long[] ticks = new long[in.remaining()];
+        byte[] codes = new byte[ticks.length];
+        int count = 0;
+        long tick = 0;
+        while (true) {
+            long value = in.readVarint();
+            int code = (int) (value & ((1 << ReplayRecorder.CODE_BITS) - 1));
+            tick += value >>> ReplayRecorder.CODE_BITS;
+            if (code == ReplayRecorder.CODE_END) {
+                break;
+            }
+            if (code / 8 > ReplayRecorder.KIND_KEY_UP || code % 8 >= TYPES.length) {
+                throw new IllegalArgumentException("bad replay entry code: " + code);
+            }
+            ticks[count] = tick;
+            codes[count] = (byte) code;
+            count++;
+        }
+        entryTicks = ticks;
+        entryCodes = codes;
+        entryCount = count;
+        endTick = tick;
+
+        engine = new GameEngine(bombMode, seed, sevenBag);
+        engine.setAutoShift(dasTicks, arrTicks);
+        engine.addListener(this);
+        engine.start();
+
+        runTo(0);
+    }
+
+    public static ReplayPlayer load(Path file) throws IOException {
+        return new ReplayPlayer(Files.readAllBytes(file));
+    }
+
+    /* ================= playback ================= */
+
+    /**
+     * 跳到指定 tick（超出范围时停在开头 / 录像结束 / 游戏结束处）。
+     * 往前跳或者跳过了一个存档点时，先恢复最近的存档，再模拟剩下的部分。
+     */
+    public void seek(long tick) {
+        long target = Math.max(0, Math.min(tick, endTick));
+        long current = engine.getTickCount();
+
+        int k = (int) Math.min(target / checkpointInterval, checkpoints.size() - 1);
+        long checkpointTick = (long) k * checkpointInterval;
+
+        if (target < current || current < checkpointTick) {
+            Checkpoint checkpoint = checkpoints.get(k);
+            engine.restore(checkpoint.snapshot);
+            nextEntry = checkpoint.nextEntry;
+        }
+        runTo(target);
+    }
+
+    /** 往后播放 ticks 个 tick（实时播放时每帧调用） */
+    public void advance(long ticks) {
+        if (ticks > 0) {
+            seek(engine.getTickCount() + ticks);
+        }
+    }
+
+    /** 一直播放到录像结束 */
+    public void runToEnd() {
+        seek(endTick);
+    }
+
+    /** 从当前位置向前模拟到 target，沿途补存档、应用输入 */
+    private void runTo(long target) {
+        while (true) {
+            long tick = engine.getTickCount();
+
+            while (nextEntry < entryCount && entryTicks[nextEntry] <= tick) {
+                apply(entryCodes[nextEntry++]);
+            }
+
+            if (tick % checkpointInterval == 0 && tick / checkpointInterval == checkpoints.size()) {
+                checkpoints.add(new Checkpoint(nextEntry, engine.snapshot()));
+            }
+
+            if (tick >= target || engine.isGameOver()) {
+                return;
+            }
+            engine.tick();
+        }
+    }
+
+    /** 和 GameLogicThread 处理输入队列的方式完全一致 */
+    private void apply(int code) {
+        EventType type = TYPES[code % 8];
+        switch (code / 8) {
+            case ReplayRecorder.KIND_KEY_UP:
+                engine.keyUp(type);
+                break;
+            case ReplayRecorder.KIND_KEY_DOWN:
+                engine.keyDown(type);
+                break;
+            default:
+                engine.step(USER_EVENTS[type.ordinal()]);
+                break;
+        }
+    }
+
+    /* ================= state ================= */
+
+    public long getTick() {
+        return engine.getTickCount();
+    }
+
+    /** 录像结束时的 tick */
+    public long getEndTick() {
+        return endTick;
+    }
+
+    /** 已经到了录像结尾（或游戏结束） */
+    public boolean isFinished() {
+        return engine.getTickCount() >= endTick || engine.isGameOver();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public boolean isBombMode() {
+        return bombMode;
+    }
+
+    public boolean isSevenBag() {
+        return sevenBag;
+    }
+
+    public int getDasTicks() {
+        return dasTicks;
+    }
+
+    public int getArrTicks() {
+        return arrTicks;
+    }
+
+    /** 录像里的输入条数（不含结束标记） */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /** 目前存下的存档数 */
+    public int getCheckpointCount() {
+        return checkpoints.size();
+    }
+
+    /** 播放用的引擎（只读使用；直接操作它会让播放结果和录像不一致） */
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    public ViewData getViewData() {
+        return engine.getViewData();
+    }
+
+    public int[][] getBoardMatrix() {
+        return engine.getBoardMatrix();
+    }
+
+    /**
+     * 当前位置的画面（和 GameLogicThread 发布的帧是同一种），状态没变时返回同一个对象。
+     */
+    public FrameSnapshot getFrame() {
+        ViewData view = engine.getViewData();
+        if (frame != null && !frameDirty && frame.getViewData() == view) {
+            return frame;
+        }
+        if (boardDirty || frameBoard == null) {
+            frameBoard = MatrixOperations.copy(engine.getBoardMatrix());
+            boardDirty = false;
+        }
+        Score score = engine.getScore();
+        frame = new FrameSnapshot(
+                ++frameId,
+                view,
+                frameBoard,
+                score.getScore(),
+                score.getLines(),
+                engine.getLevel(),
+                score.getHighScore(),
+                engine.isGameOver(),
+                clearSequence,
+                lastClearBonus,
+                explosionSequence,
+                explosionCells
+        );
+        frameDirty = false;
+        return frame;
+    }
+
+    /* ================= engine events ================= */
+
+    @Override
+    public void onBoardChanged(int[][] matrix) {
+        boardDirty = true;
+        frameDirty = true;
+    }
+
+    @Override
+    public void onScoreChanged(int score, int lines, int highScore) {
+        frameDirty = true;
+    }
+
+    @Override
+    public void onRowsCleared(ClearRow clearRow) {
+        clearSequence++;
+        lastClearBonus = clearRow.getScoreBonus();
+        frameDirty = true;
+    }
+
+    @Override
+    public void onExplosion(List<Point> cells) {
+        List<Point> copy = new ArrayList<>(cells.size());
+        for (Point p : cells) {
+            copy.add(new Point(p));
+        }
+        explosionCells = List.copyOf(copy);
+        explosionSequence++;
+        frameDirty = true;
+    }
+
+    @Override
+    public void onGameOver() {
+        frameDirty = true;
+    }
+
+    /* ================= decoding ================= */
+
+    private static final class Reader {
+        private final byte[] data;
+        private int pos;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int remaining() {
+            return data.length - pos;
+        }
+
+        int readByte() {
+            if (pos >= data.length) {
+                throw new IllegalArgumentException("truncated replay");
+            }
+            return data[pos++] & 0xFF;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("malformed varint in replay");
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.comp2042;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * 录像记录器：只记录一局游戏的输入，不记录画面或棋盘。
+ * 因为方块序列由种子决定、引擎只按 tick 推进，重放同样的输入就能得到完全相同的一局。
+ *
+ * 文件格式（所有多字节整数都是大端 / varint）：
+ * <pre>
+ *   "TRPL"            魔数（4 字节）
+ *   version           1 字节，目前为 1
+ *   flags             1 字节：bit0 = 炸弹模式，bit1 = 7-bag
+ *   seed              8 字节
+ *   das, arr          varint，单位 tick
+ *   entries...        varint((tickDelta << 5) | code)
+ *   END               varint((tickDelta << 5) | 31)，tickDelta 到游戏结束时的 tick
+ * </pre>
+ * code = kind * 8 + EventType.ordinal()，kind：0 一次性动作，1 按下，2 松开。
+ * tickDelta 是和上一条记录之间相隔的逻辑 tick 数；大多数记录只占 1~2 个字节，
+ * 一局几百块方块通常只有几 KB。
+ *
+ * Records one game's inputs as compact varints into a growable byte buffer.
+ * Not thread-safe: use it on the thread that drives the engine.
+ */
+public final class ReplayRecorder {
+
+    static final byte[] MAGIC = {'T', 'R', 'P', 'L'};
+    static final int VERSION = 1;
+
+    static final int FLAG_BOMB = 1;
+    static final int FLAG_SEVEN_BAG = 2;
+
+    static final int KIND_ACTION = 0;
+    static final int KIND_KEY_DOWN = 1;
+    static final int KIND_KEY_UP = 2;
+
+    static final int CODE_BITS = 5;
+    static final int CODE_END = 31;
+
+    private byte[] buffer = new byte[1024];
+    private int size;
+
+    private long lastTick;
+    private boolean finished;
+
+    /**
+     * 开始录一局：写入文件头。
+     */
+    public ReplayRecorder(long seed, boolean bombMode, boolean sevenBag, int dasTicks, int arrTicks) {
+        for (byte b : MAGIC) {
+            writeByte(b);
+        }
+        writeByte(VERSION);
+        writeByte((bombMode ? FLAG_BOMB : 0) | (sevenBag ? FLAG_SEVEN_BAG : 0));
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            writeByte((int) (seed >>> shift));
+        }
+        writeVarint(dasTicks);
+        writeVarint(arrTicks);
+    }
+
+    /** 按当前引擎的种子、模式和 DAS / ARR 设置开始录一局（引擎必须带种子） */
+    public static ReplayRecorder forGame(GameEngine engine) {
+        if (!engine.isSeeded()) {
+            throw new IllegalArgumentException("Only seeded games can be recorded");
+        }
+        return new ReplayRecorder(engine.getSeed(), engine.isBombMode(), engine.isSevenBag(),
+                engine.getDasTicks(), engine.getArrTicks());
+    }
+
+    public void recordAction(long tick, EventType type) {
+        record(tick, KIND_ACTION, type);
+    }
+
+    public void recordKeyDown(long tick, EventType type) {
+        record(tick, KIND_KEY_DOWN, type);
+    }
+
+    public void recordKeyUp(long tick, EventType type) {
+        record(tick, KIND_KEY_UP, type);
+    }
+
+    private void record(long tick, int kind, EventType type) {
+        if (finished) return;
+        writeEntry(tick, kind * 8 + type.ordinal());
+    }
+
+    /** 结束这一局（写入 END），之后的记录都会被忽略 */
+    public void finish(long tick) {
+        if (finished) return;
+        writeEntry(tick, CODE_END);
+        finished = true;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /** 当前已经写入的字节数 */
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /** 把录像写到文件（一次写完） */
+    public void writeTo(Path path) throws IOException {
+        Path parent = path.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(path, toByteArray());
+    }
+
+    /* ================= encoding ================= */
+
+    private void writeEntry(long tick, int code) {
+        long delta = tick - lastTick;
+        if (delta < 0) {
+            throw new IllegalArgumentException("tick went backwards: " + tick + " < " + lastTick);
+        }
+        lastTick = tick;
+        writeVarint((delta << CODE_BITS) | code);
+    }
+
+    /** 无符号 varint：每字节 7 位，最高位为 1 表示后面还有 */
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    private void writeByte(int b) {
+        if (size == buffer.length) {
+            buffer = Arrays.copyOf(buffer, size * 2);
+        }
+        buffer[size++] = (byte) b;
+    }
+}
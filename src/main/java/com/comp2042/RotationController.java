@@ -24,8 +24,7 @@ public class RotationController {
 
         NextShapeInfo nextShape = brickRotator.getNextShape();
 
-        boolean conflict = MatrixOperations.intersect(
-                boardState.getMatrix(),
+        boolean conflict = boardState.intersects(
                 nextShape.getShape(),
                 currentOffset.x,
                 currentOffset.y
@@ -1,8 +1,5 @@
 package com.comp2042;
 
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -15,48 +12,41 @@ import java.nio.file.StandardOpenOption;
  * - current score
  * - total cleared lines
  * - best (high) score (saved to a small text file)
+ *
+ * 只用普通 int，不依赖 JavaFX，无头模拟也能用；GUI 通过 GameEventListener 收到变化。
+ * 构造时不再读文件，需要历史最高分时调用 loadHighScore()。
  */
 public class Score {
 
-    private final IntegerProperty score = new SimpleIntegerProperty(0);
-    private final IntegerProperty lines = new SimpleIntegerProperty(0);
+    private int score;
+    private int lines;
 
     // ★ 新增：历史最高分
-    private final IntegerProperty highScore = new SimpleIntegerProperty(0);
+    private int highScore;
 
     // 存历史最高分的小文件名（和程序同一目录）
     private static final String HIGH_SCORE_FILE = "highscore.txt";
 
-    public Score() {
-        // 启动时尝试加载历史最高分
-        loadHighScore();
-    }
-
     // 当前分数相关
     public int getScore() {
-        return score.get();
-    }
-
-    public IntegerProperty scoreProperty() {
         return score;
     }
 
     // 消除总行数相关
     public int getLines() {
-        return lines.get();
-    }
-
-    public IntegerProperty linesProperty() {
         return lines;
     }
 
     // 历史最高分相关
     public int getHighScore() {
-        return highScore.get();
+        return highScore;
     }
 
-    public IntegerProperty highScoreProperty() {
-        return highScore;
+    /** 复制另一个 Score 的全部数值（存档 / 回放用，不读写文件） */
+    public void copyFrom(Score other) {
+        score = other.score;
+        lines = other.lines;
+        highScore = other.highScore;
     }
 
     /**
@@ -65,11 +55,10 @@ public class Score {
     public void add(int value) {
         if (value <= 0) return;
 
-        int newScore = score.get() + value;
-        score.set(newScore);
+        score += value;
 
-        if (newScore > highScore.get()) {
-            highScore.set(newScore);
+        if (score > highScore) {
+            highScore = score;
         }
     }
 
@@ -78,15 +67,15 @@ public class Score {
      */
     public void addLines(int value) {
         if (value <= 0) return;
-        lines.set(lines.get() + value);
+        lines += value;
     }
 
     /**
      * 新游戏时重置当前分数和行数（历史最高分不清零）
      */
     public void reset() {
-        score.set(0);
-        lines.set(0);
+        score = 0;
+        lines = 0;
     }
 
     /**
@@ -99,7 +88,7 @@ public class Score {
                 String txt = Files.readString(path).trim();
                 int stored = Integer.parseInt(txt);
                 if (stored >= 0) {
-                    highScore.set(stored);
+                    highScore = stored;
                 }
             }
         } catch (Exception ignored) {
@@ -116,7 +105,7 @@ public class Score {
             Path path = Path.of(HIGH_SCORE_FILE);
             Files.writeString(
                     path,
-                    Integer.toString(highScore.get()),
+                    Integer.toString(highScore),
                     StandardOpenOption.CREATE,
                     StandardOpenOption.TRUNCATE_EXISTING
             );
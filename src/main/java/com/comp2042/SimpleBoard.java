@@ -1,9 +1,12 @@
 package com.comp2042;
 
+import com.comp2042.logic.bricks.BombBrick;
 import com.comp2042.logic.bricks.Brick;
 import com.comp2042.logic.bricks.BrickGenerator;
+import com.comp2042.logic.bricks.BrickShape;
 import com.comp2042.logic.bricks.NormalBrickGenerator;
 import com.comp2042.logic.bricks.RandomBrickGenerator;
+import com.comp2042.logic.bricks.SplitMix64;
 
 import java.awt.Point;
 import java.util.ArrayList;
@@ -31,12 +34,6 @@ public class SimpleBoard implements Board {
     /** 背景棋盘状态（已经落下的方块） */
     private final BoardState boardState;
 
-    /**
-     * 为了兼容旧的 MatrixOperations 逻辑，这里缓存一份对
-     * boardState 内部矩阵的引用（注意：不要自己 new）。
-     */
-    private int[][] currentGameMatrix;
-
     /** 当前方块的形状与旋转控制 */
     private final BrickRotator brickRotator;
 
@@ -50,7 +47,7 @@ public class SimpleBoard implements Board {
     private final RotationController rotationController;
 
     /** 当前活动方块左上角位置（列 = x, 行 = y） */
-    private Point currentOffset;
+    private final Point currentOffset = new Point(START_X, START_Y);
 
     /** 分数模型 */
     private final Score score;
@@ -58,8 +55,33 @@ public class SimpleBoard implements Board {
     /** 是否启用炸弹模式 */
     private final boolean bombMode;
 
+    /** 让方块 key 和格子 key 不落在同一个序列上 */
+    private static final long PIECE_KEY_SALT = 0x7F4A_7C15_9E37_79B9L;
+
     /** 炸弹方块在矩阵中的 id（写死为 8） */
-    private static final int BOMB_ID = 8;
+    private static final int BOMB_ID = BombBrick.BOMB_ID;
+
+    /**
+     * 幽灵落点缓存（GUI 影子和硬降共用）：
+     * 棋盘版本、方块所在列、或当前形状（方块种类 / 旋转）变化时重新计算。
+     * 在同一列从 ghostFromY 直落到 ghostY 的路上，落点不变；
+     * 方块不在这段路上时（例如移到旁边、钻到屋檐下再移回来）也要重新计算。
+     */
+    private long ghostBoardVersion = -1;
+    private int ghostX;
+    private BrickShape ghostShape;
+    private int ghostFromY;
+    private int ghostY;
+
+    /**
+     * ViewData 缓存：方块移动 / 旋转 / 换新方块时 pieceVersion 加 1，
+     * 再加上棋盘版本号（影响落点），两者都没变就直接返回同一个 ViewData。
+     */
+    private long pieceVersion;
+    private long viewPieceVersion = -1;
+    private long viewBoardVersion = -1;
+    private long viewVersion;
+    private ViewData cachedViewData;
 
     /** 最近一次爆炸所影响到的格子列表（给 GUI 做动画用） */
     private final List<Point> lastExplosionCells = new ArrayList<>();
@@ -76,15 +98,22 @@ public class SimpleBoard implements Board {
         this(rows, cols, false);
     }
 
-    /** 可选择是否启用炸弹模式的构造 */
+    /** 可选择是否启用炸弹模式的构造（方块序列随机，不可重现） */
     public SimpleBoard(int rows, int cols, boolean bombMode) {
+        this(rows, cols, bombMode, createGenerator(bombMode, SplitMix64.randomSeed(), false));
+    }
+
+    /**
+     * 指定方块生成器的构造：给定种子的生成器可以让整局游戏完全重现（回放 / 模拟 / AI 评估）。
+     * 生成器要和 bombMode 对应（炸弹模式用允许炸弹的 RandomBrickGenerator）。
+     */
+    public SimpleBoard(int rows, int cols, boolean bombMode, BrickGenerator brickGenerator) {
         this.rows = rows;
         this.cols = cols;
         this.bombMode = bombMode;
 
         // 棋盘状态
         this.boardState = new BoardState(rows, cols);
-        this.currentGameMatrix = boardState.getMatrix();
 
         // 控制组件
         this.brickRotator = new BrickRotator();
@@ -93,14 +122,97 @@ public class SimpleBoard implements Board {
 
         this.score = new Score();
 
-        // 根据模式选择不同的方块生成器
+        this.brickGenerator = brickGenerator;
+    }
+
+    /**
+     * 从存档新建一个棋盘（尺寸、模式、生成器都和存档一致），
+     * 给 AI 搜索线程当草稿用，之后反复 restore 同类存档。
+     */
+    public static SimpleBoard fromSnapshot(BoardSnapshot snapshot) {
+        SimpleBoard board = new SimpleBoard(snapshot.getRows(), snapshot.getCols(),
+                snapshot.isBombMode(), snapshot.brickGenerator.copy());
+        board.restore(snapshot);
+        return board;
+    }
+
+    /** 根据模式选择不同的方块生成器 */
+    public static BrickGenerator createGenerator(boolean bombMode, long seed, boolean sevenBag) {
         if (bombMode) {
             // 带炸弹的随机生成器（内部有 allowBombs=true）
-            this.brickGenerator = new RandomBrickGenerator(true);
-        } else {
-            // 只有经典的 7 种普通砖块
-            this.brickGenerator = new NormalBrickGenerator();
+            return new RandomBrickGenerator(true, seed, sevenBag);
         }
+        // 只有经典的 7 种普通砖块
+        return new NormalBrickGenerator(seed, sevenBag);
+    }
+
+    /* ================== 给 AI / 模拟读取的状态 ================== */
+
+    /** 背景棋盘（只读使用：列高度、行位图等特征直接从这里取） */
+    public BoardState getBoardState() {
+        return boardState;
+    }
+
+    /** 当前活动方块 */
+    public Brick getCurrentBrick() {
+        return brickRotator.getBrick();
+    }
+
+    /** 当前方块的旋转下标（getCurrentBrick().getShapes() 里的位置） */
+    public int getCurrentRotation() {
+        return brickRotator.getCurrentShapeIndex();
+    }
+
+    /** 当前方块左上角的列 */
+    public int getCurrentX() {
+        return currentOffset.x;
+    }
+
+    /** 当前方块左上角的行 */
+    public int getCurrentY() {
+        return currentOffset.y;
+    }
+
+    /** 局面哈希 = 背景哈希 XOR 当前方块的 key（见 pieceKey） */
+    @Override
+    public long getPositionHash() {
+        BrickShape shape = brickRotator.getCurrentShape();
+        return boardState.getHash()
+                ^ pieceKey(shape.getId(), brickRotator.getCurrentShapeIndex(), currentOffset.x, currentOffset.y);
+    }
+
+    /**
+     * 活动方块的哈希 key：方块 id、旋转下标、位置一起混合成 64 位。
+     * 和 BoardState 的格子 key 一样是固定的，不同运行之间可以比较。
+     */
+    public static long pieceKey(int shapeId, int rotation, int x, int y) {
+        long code = ((long) shapeId << 24) | ((long) (rotation & 0xFF) << 16)
+                | ((x & 0xFF) << 8) | (y & 0xFF);
+        return SplitMix64.mix(code + PIECE_KEY_SALT);
+    }
+
+    /** 方块生成器状态的哈希：和 getPositionHash 一起可以唯一确定之后整局的走向（AI 置换表用） */
+    public long getGeneratorHash() {
+        return brickGenerator.stateHash();
+    }
+
+    /** 之后还没生成的方块改由随机流 (masterSeed, index) 决定，见 BrickGenerator.reseed（蒙特卡洛推演用） */
+    public void reseedGenerator(long masterSeed, long index) {
+        brickGenerator.reseed(masterSeed, index);
+    }
+
+    /** 下一块（预览） */
+    public Brick getNextBrick() {
+        return brickGenerator.getNextBrick();
+    }
+
+    /** 扩展预览：getPreview(0) 就是下一块，getPreview(1) 是再下一块……（见 BrickGenerator.peek） */
+    public Brick getPreview(int index) {
+        return brickGenerator.peek(index);
+    }
+
+    public boolean isBombMode() {
+        return bombMode;
     }
 
     /* ================== Board 接口：移动 ================== */
@@ -120,32 +232,57 @@ public class SimpleBoard implements Board {
         return tryMoveBrick(1, 0);
     }
 
-    /** 通用平移逻辑：尝试将当前方块移动 (dx, dy) */
+    /** 通用平移逻辑：尝试将当前方块移动 (dx, dy)，成功则原地更新坐标 */
     private boolean tryMoveBrick(int dx, int dy) {
-        int[][] shape = brickRotator.getCurrentShape();
-
-        Point newOffset = movementController.tryTranslate(
-                boardState,
-                shape,
-                currentOffset,
-                dx,
-                dy
-        );
+        BrickShape shape = brickRotator.getCurrentShape();
 
-        if (newOffset == null) {
+        if (!movementController.canTranslate(boardState, shape, currentOffset, dx, dy)) {
             // 碰撞或越界，移动失败
             return false;
         }
 
-        currentOffset = newOffset;
+        currentOffset.translate(dx, dy);
+        pieceVersion++;
         return true;
     }
 
+    /** 硬降：直接移动到（缓存的）落点，返回下落距离 */
+    @Override
+    public int hardDrop() {
+        int distance = getGhostY() - currentOffset.y;
+        if (distance > 0) {
+            currentOffset.translate(0, distance);
+            pieceVersion++;
+        }
+        return distance;
+    }
+
+    /** 当前方块的落点行（幽灵影子的 y），命中缓存时不做任何碰撞计算 */
+    public int getGhostY() {
+        BrickShape shape = brickRotator.getCurrentShape();
+        long version = boardState.getVersion();
+
+        int y = currentOffset.y;
+        if (ghostBoardVersion != version || ghostX != currentOffset.x || ghostShape != shape
+                || y < ghostFromY || y > ghostY) {
+            ghostY = y + movementController.dropDistance(boardState, shape, currentOffset);
+            ghostBoardVersion = version;
+            ghostX = currentOffset.x;
+            ghostShape = shape;
+            ghostFromY = y;
+        }
+        return ghostY;
+    }
+
     /* ================== Board 接口：旋转 ================== */
 
     @Override
     public boolean rotateLeftBrick() {
-        return rotationController.tryRotateLeft(boardState, brickRotator, currentOffset);
+        boolean rotated = rotationController.tryRotateLeft(boardState, brickRotator, currentOffset);
+        if (rotated) {
+            pieceVersion++;
+        }
+        return rotated;
     }
 
     /* ============ Board 接口：生成新方块 / 视图数据 ============ */
@@ -156,17 +293,16 @@ public class SimpleBoard implements Board {
         brickRotator.setBrick(currentBrick);
 
         // 出生位置
-        currentOffset = new Point(START_X, START_Y);
+        currentOffset.setLocation(START_X, START_Y);
+        pieceVersion++;
 
         // 一出生就冲突 → 游戏结束
         boolean conflict = movementController.hasCollision(
-                boardState.getMatrix(),
+                boardState,
                 brickRotator.getCurrentShape(),
                 currentOffset
         );
 
-        // 同步引用
-        currentGameMatrix = boardState.getMatrix();
         // 每次生成新方块，把上一次爆炸记录清空
         lastExplosionCells.clear();
 
@@ -180,13 +316,24 @@ public class SimpleBoard implements Board {
 
     @Override
     public ViewData getViewData() {
-        return new ViewData(
-                brickRotator.getCurrentShape(),
-                currentOffset.x,
-                currentOffset.y,
-                // next brick 的第一个旋转形状（保持原来的行为）
-                brickGenerator.getNextBrick().getShapeMatrix().get(0)
-        );
+        long boardVersion = boardState.getVersion();
+        if (cachedViewData == null
+                || viewPieceVersion != pieceVersion
+                || viewBoardVersion != boardVersion) {
+
+            cachedViewData = new ViewData(
+                    brickRotator.getCurrentShape(),
+                    currentOffset.x,
+                    currentOffset.y,
+                    // next brick 的第一个旋转形状（保持原来的行为）
+                    brickGenerator.getNextBrick().getShapes().get(0),
+                    getGhostY(),
+                    ++viewVersion
+            );
+            viewPieceVersion = pieceVersion;
+            viewBoardVersion = boardVersion;
+        }
+        return cachedViewData;
     }
 
     /* ======= Board 接口：合并到背景 / 炸弹爆炸 / 消行 ======= */
@@ -194,35 +341,26 @@ public class SimpleBoard implements Board {
     @Override
     public void mergeBrickToBackground() {
 
-        int[][] shape = brickRotator.getCurrentShape();
+        BrickShape shape = brickRotator.getCurrentShape();
         int x = currentOffset.x;
         int y = currentOffset.y;
 
-        // 拿到最新背景矩阵引用
-        currentGameMatrix = boardState.getMatrix();
-
         // 炸弹模式 + 当前形状里有炸弹 → 走爆炸逻辑
         if (bombMode && containsBomb(shape)) {
             lastExplosionCells.clear();
             explode(shape, x, y);
         } else {
-            // 普通合并
-            currentGameMatrix = MatrixOperations.merge(currentGameMatrix, shape, x, y);
-            boardState.replaceMatrix(currentGameMatrix);
+            // 普通合并（直接写进位棋盘）
+            boardState.mergeBrick(shape, x, y);
 
             // 非炸弹则清空爆炸记录
             lastExplosionCells.clear();
         }
     }
 
-    /** 当前 4×4 形状里是否存在炸弹格子（id == BOMB_ID） */
-    private boolean containsBomb(int[][] shape) {
-        for (int[] row : shape) {
-            for (int cell : row) {
-                if (cell == BOMB_ID) return true;
-            }
-        }
-        return false;
+    /** 当前形状是否为炸弹（形状的颜色 id 在编译时已经算好） */
+    private boolean containsBomb(BrickShape shape) {
+        return shape.getId() == BOMB_ID;
     }
 
     /**
@@ -230,55 +368,44 @@ public class SimpleBoard implements Board {
      * 以每个炸弹格子为中心，清除 3×3 区域（并记录所有被清除的格子坐标）。
      *
      * ⚠ 注意：
-     *  - 这里已经把矩阵里的值改为 0（逻辑上已经“消失”）
+     *  - 这里已经把棋盘里的格子清空（逻辑上已经“消失”）
      *  - 但 lastExplosionCells 里保存了这些格子的位置，
      *    GUI 可以用它做：先画黑色 → 再刷新背景 的动画效果。
      */
-    private void explode(int[][] shape, int offsetX, int offsetY) {
-
-        currentGameMatrix = boardState.getMatrix();
+    private void explode(BrickShape shape, int offsetX, int offsetY) {
 
-        int maxY = currentGameMatrix.length;
-        int maxX = currentGameMatrix[0].length;
+        int maxY = rows;
+        int maxX = cols;
 
-        for (int i = 0; i < shape.length; i++) {
-            for (int j = 0; j < shape[i].length; j++) {
+        // 只遍历形状里真正占用的格子（炸弹形状只有 1 个）
+        for (int i = 0; i < shape.getCellCount(); i++) {
 
-                if (shape[i][j] == BOMB_ID) {
+            int cx = offsetX + shape.getCellX(i);
+            int cy = offsetY + shape.getCellY(i);
 
-                    int cx = offsetX + j;
-                    int cy = offsetY + i;
+            // 以 (cx, cy) 为中心，清除 3×3 区域
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
 
-                    // 以 (cx, cy) 为中心，清除 3×3 区域
-                    for (int dy = -1; dy <= 1; dy++) {
-                        for (int dx = -1; dx <= 1; dx++) {
+                    int bx = cx + dx;
+                    int by = cy + dy;
 
-                            int bx = cx + dx;
-                            int by = cy + dy;
+                    if (bx >= 0 && bx < maxX && by >= 0 && by < maxY) {
 
-                            if (bx >= 0 && bx < maxX && by >= 0 && by < maxY) {
+                        // 记录动画用的爆炸格子（给 GUI）
+                        lastExplosionCells.add(new Point(bx, by));
 
-                                // 记录动画用的爆炸格子（给 GUI）
-                                lastExplosionCells.add(new Point(bx, by));
-
-                                // 逻辑上立刻清空
-                                currentGameMatrix[by][bx] = 0;
-                            }
-                        }
+                        // 逻辑上立刻清空
+                        boardState.clearCell(bx, by);
                     }
                 }
             }
         }
-
-        // 将更新后的矩阵写回 BoardState
-        boardState.replaceMatrix(currentGameMatrix);
     }
 
     @Override
     public ClearRow clearRows() {
-        ClearRow result = boardState.clearFullRows();
-        currentGameMatrix = boardState.getMatrix();
-        return result;
+        return boardState.clearFullRows();
     }
 
     @Override
@@ -289,9 +416,59 @@ public class SimpleBoard implements Board {
     @Override
     public void newGame() {
         boardState.reset();
-        currentGameMatrix = boardState.getMatrix();
         score.reset();
         lastExplosionCells.clear();
         createNewBrick();
     }
+
+    @Override
+    public void newGame(BrickGenerator brickGenerator) {
+        this.brickGenerator = brickGenerator;
+        newGame();
+    }
+
+    /* ================== Board 接口：存档 / 读档 ================== */
+
+    @Override
+    public BoardSnapshot snapshot() {
+        Score scoreCopy = new Score();
+        scoreCopy.copyFrom(score);
+        return new BoardSnapshot(
+                boardState.copy(),
+                brickGenerator.copy(),
+                brickRotator.getBrick(),
+                brickRotator.getCurrentShapeIndex(),
+                currentOffset.x,
+                currentOffset.y,
+                scoreCopy,
+                bombMode
+        );
+    }
+
+    @Override
+    public void snapshot(BoardSnapshot slot) {
+        slot.boardState.copyFrom(boardState);
+        slot.brickGenerator = brickGenerator.copyInto(slot.brickGenerator);
+        slot.brick = brickRotator.getBrick();
+        slot.rotation = brickRotator.getCurrentShapeIndex();
+        slot.x = currentOffset.x;
+        slot.y = currentOffset.y;
+        slot.score.copyFrom(score);
+    }
+
+    /** 读档：全部原地复制，不分配内存（生成器类型不同时除外） */
+    @Override
+    public void restore(BoardSnapshot snapshot) {
+        boardState.copyFrom(snapshot.boardState);
+        brickGenerator = snapshot.brickGenerator.copyInto(brickGenerator);
+        brickRotator.setBrick(snapshot.brick);
+        brickRotator.setCurrentShape(snapshot.rotation);
+        currentOffset.setLocation(snapshot.x, snapshot.y);
+        score.copyFrom(snapshot.score);
+        lastExplosionCells.clear();
+
+        // 落点和 ViewData 缓存全部作废
+        ghostBoardVersion = -1;
+        pieceVersion++;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,281 @@
+package com.comp2042;
+
+import com.comp2042.logic.bricks.SplitMix64;
+
+import java.awt.Point;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 无界面的自我对局模拟器：在所有核心上跑 N 局，每局写一行 CSV
+ * （分数、行数、方块数、耗时、引爆的炸弹数），最后打印吞吐量。
+ * 用于炸弹模式的平衡测试，以及发现引擎的性能退化。
+ *
+ * <pre>
+ *   java -cp target/classes com.comp2042.SimulatorMain --games 1000 --policy heuristic --bomb --out results.csv
+ * </pre>
+ *
+ * 每个工作线程有自己的 GameEngine（以及其中的 SimpleBoard）和策略。
+ * 第 i 局总是使用由（主种子, i）导出的种子，所以不管对局怎样分配到各线程，
+ * 一次运行都可以复现（带 --budget-ms 的 montecarlo 除外，它的截止取决于时钟）。
+ * 方块一个接一个直接放下，不走重力 tick。
+ */
+public final class SimulatorMain {
+
+    private static final String CSV_HEADER = "game,seed,score,lines,pieces,duration_ms,bombs,game_over";
+
+    private int games = 100;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String policy = "heuristic";
+    private boolean bombMode;
+    private boolean sevenBag;
+    private long masterSeed = SplitMix64.randomSeed();
+    private int maxPieces = 10_000;
+    private int beamWidth = BeamSearchPlanner.DEFAULT_BEAM_WIDTH;
+    private int preview = BeamSearchPlanner.DEFAULT_PIECES;
+    // bot：depth > PlacementBot.VISIBLE_BRICKS 时以 oracle 模式运行（知道隐藏的方块）
+    private int botDepth = PlacementBot.VISIBLE_BRICKS;
+    private int botWidth;
+    // transposition table buckets of each worker's bot (32 bytes each); 0 = no table
+    private int ttBuckets;
+    private int rollouts = MonteCarloEvaluator.DEFAULT_MAX_ROLLOUTS;
+    // 0 = 固定 rollout 次数；按墙钟时间限制会让 montecarlo 的结果无法复现
+    private long budgetMillis;
+    private Path out;
+
+    public static void main(String[] args) throws Exception {
+        SimulatorMain simulator = new SimulatorMain();
+        try {
+            simulator.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            usage(System.err);
+            System.exit(2);
+        }
+        simulator.run();
+    }
+
+    private static void usage(PrintStream err) {
+        err.println("usage: SimulatorMain [--games N] [--threads N] [--policy random|heuristic|bot|beam|montecarlo]");
+        err.println("                     [--bomb] [--bag] [--seed N] [--max-pieces N] [--out file.csv]");
+        err.println("                     [--beam-width K] [--preview N] [--rollouts N] [--budget-ms MS]");
+        err.println("                     [--bot-depth N] [--bot-width W] [--tt-size BUCKETS]");
+        err.println("  --bot-depth > " + PlacementBot.VISIBLE_BRICKS + " lets the bot read the hidden brick sequence (oracle mode)");
+        err.println("  --preview > " + PlacementBot.VISIBLE_BRICKS + " lets the beam planner read the hidden brick sequence (oracle mode)");
+        err.println("  --bot-width > 0 searches only the best W placements per brick further; 0 = all");
+        err.println("  --tt-size > 0 gives each worker's bot a transposition table of that many buckets");
+        err.println("  --budget-ms > 0 caps montecarlo decisions by wall-clock time; runs are then not reproducible");
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--games":      games = positive(arg, value(args, ++i, arg)); break;
+                case "--threads":    threads = positive(arg, value(args, ++i, arg)); break;
+                case "--policy":     policy = value(args, ++i, arg); break;
+                case "--bomb":       bombMode = true; break;
+                case "--bag":        sevenBag = true; break;
+                case "--seed":       masterSeed = Long.parseLong(value(args, ++i, arg)); break;
+                case "--max-pieces": maxPieces = positive(arg, value(args, ++i, arg)); break;
+                case "--out":        out = Path.of(value(args, ++i, arg)); break;
+                case "--beam-width": beamWidth = positive(arg, value(args, ++i, arg)); break;
+                case "--preview":    preview = positive(arg, value(args, ++i, arg)); break;
+                case "--rollouts":   rollouts = positive(arg, value(args, ++i, arg)); break;
+                case "--budget-ms":  budgetMillis = Long.parseLong(value(args, ++i, arg)); break;
+                case "--bot-depth":  botDepth = positive(arg, value(args, ++i, arg)); break;
+                case "--bot-width":  botWidth = nonNegative(arg, value(args, ++i, arg)); break;
+                case "--tt-size":    ttBuckets = nonNegative(arg, value(args, ++i, arg)); break;
+                default:
+                    throw new IllegalArgumentException("unknown option: " + arg);
+            }
+        }
+        // fail early on a bad policy name
+        createPolicy();
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException(option + " needs a value");
+        }
+        return args[i];
+    }
+
+    private static int nonNegative(String option, String text) {
+        int value = Integer.parseInt(text);
+        if (value < 0) {
+            throw new IllegalArgumentException(option + " must not be negative: " + value);
+        }
+        return value;
+    }
+
+    private static int positive(String option, String text) {
+        int value = Integer.parseInt(text);
+        if (value <= 0) {
+            throw new IllegalArgumentException(option + " must be positive: " + value);
+        }
+        return value;
+    }
+
+    // random streams are set per game through PlacementPolicy.reseed
+    private PlacementPolicy createPolicy() {
+        switch (policy) {
+            case "random":    return new RandomPolicy(new SplitMix64(0));
+            case "heuristic": return new HeuristicPolicy();
+            case "bot":
+                return new PlacementBot(BoardEvaluator.DEFAULT, botDepth, botWidth,
+                        botDepth > PlacementBot.VISIBLE_BRICKS, ForkJoinPool.commonPool(),
+                        ttBuckets > 0 ? new TranspositionTable(ttBuckets) : null);
+            case "beam":
+                return new BeamSearchPlanner(BoardEvaluator.DEFAULT, beamWidth, preview,
+                        preview > PlacementBot.VISIBLE_BRICKS, ForkJoinPool.commonPool());
+            case "montecarlo":
+                // budget 0 = fixed rollout count, reproducible like the other policies
+                return new MonteCarloEvaluator(BoardEvaluator.DEFAULT, MonteCarloEvaluator.DEFAULT_ROLLOUT_PIECES,
+                        rollouts, budgetMillis, ForkJoinPool.commonPool(), 0);
+            default:
+                throw new IllegalArgumentException("unknown policy: " + policy);
+        }
+    }
+
+    /* ================= running ================= */
+
+    /** 一局结束后的结果，写成一行 CSV */
+    private static final class GameResult {
+        final int game;
+        final long seed;
+        final int score;
+        final int lines;
+        final int pieces;
+        final long nanos;
+        final int bombs;
+        final boolean gameOver;
+
+        GameResult(int game, long seed, int score, int lines, int pieces, long nanos, int bombs, boolean gameOver) {
+            this.game = game;
+            this.seed = seed;
+            this.score = score;
+            this.lines = lines;
+            this.pieces = pieces;
+            this.nanos = nanos;
+            this.bombs = bombs;
+            this.gameOver = gameOver;
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%d,%d,%d,%d,%d,%.3f,%d,%b",
+                    game, seed, score, lines, pieces, nanos / 1e6, bombs, gameOver);
+        }
+    }
+
+    private void run() throws IOException, InterruptedException {
+        BlockingQueue<GameResult> results = new LinkedBlockingQueue<>();
+        AtomicInteger nextGame = new AtomicInteger();
+
+        int workerCount = Math.min(threads, games);
+        long start = System.nanoTime();
+        for (int w = 0; w < workerCount; w++) {
+            Thread worker = new Thread(() -> work(nextGame, results), "simulator-" + w);
+            worker.setDaemon(true);
+            worker.setUncaughtExceptionHandler((t, e) -> {
+                // the writer would otherwise wait forever for this worker's games
+                e.printStackTrace();
+                System.exit(1);
+            });
+            worker.start();
+        }
+
+        // results are streamed in completion order while the workers keep going
+        long pieces = 0;
+        long lines = 0;
+        long score = 0;
+        long bombs = 0;
+        try (Writer csv = openOutput()) {
+            csv.write(CSV_HEADER);
+            csv.write('\n');
+            for (int i = 0; i < games; i++) {
+                GameResult result = results.take();
+                csv.write(result.toCsv());
+                csv.write('\n');
+                pieces += result.pieces;
+                lines += result.lines;
+                score += result.score;
+                bombs += result.bombs;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.err.printf(Locale.ROOT, "%d games (%s, %s%s) on %d threads in %.2f s, master seed %d%n",
+                games, policy, bombMode ? "bomb" : "normal", sevenBag ? ", 7-bag" : "",
+                workerCount, seconds, masterSeed);
+        System.err.printf(Locale.ROOT, "throughput: %.1f games/s, %.0f pieces/s%n",
+                games / seconds, pieces / seconds);
+        System.err.printf(Locale.ROOT, "average: score %.1f, lines %.1f, pieces %.1f, bombs %.2f%n",
+                (double) score / games, (double) lines / games, (double) pieces / games, (double) bombs / games);
+    }
+
+    private Writer openOutput() throws IOException {
+        if (out == null) {
+            return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        }
+        Path parent = out.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return Files.newBufferedWriter(out, StandardCharsets.UTF_8);
+    }
+
+    /** 工作线程循环：每个线程一个引擎和一个策略，它领到的每一局都复用 */
+    private void work(AtomicInteger nextGame, BlockingQueue<GameResult> results) {
+        int[] bombs = new int[1];
+        GameEngine engine = null;
+        PlacementPolicy placementPolicy = createPolicy();
+
+        int game;
+        while ((game = nextGame.getAndIncrement()) < games) {
+            SplitMix64 stream = SplitMix64.stream(masterSeed, game);
+            long seed = stream.nextLong();
+
+            if (engine == null) {
+                engine = new GameEngine(bombMode, seed, sevenBag);
+                engine.addListener(new GameEventListener() {
+                    @Override
+                    public void onExplosion(List<Point> cells) {
+                        bombs[0]++;
+                    }
+                });
+                engine.start();
+            } else {
+                engine.newGame(seed);
+            }
+            // the policy's random choices are tied to the game index too
+            placementPolicy.reseed(stream.nextLong());
+            bombs[0] = 0;
+
+            long t0 = System.nanoTime();
+            SimpleBoard board = (SimpleBoard) engine.getBoard();
+            int pieces = 0;
+            while (!engine.isGameOver() && pieces < maxPieces) {
+                placementPolicy.choose(board).execute(engine);
+                pieces++;
+            }
+            long nanos = System.nanoTime() - t0;
+
+            Score s = engine.getScore();
+            results.add(new GameResult(game, seed, s.getScore(), s.getLines(), pieces, nanos,
+                    bombs[0], engine.isGameOver()));
+        }
+    }
+}
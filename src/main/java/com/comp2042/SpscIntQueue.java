@@ -0,0 +1,71 @@
+package com.comp2042;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单生产者 / 单消费者的无锁 int 环形队列。
+ * 生产者（FX 线程）只写 tail，消费者（逻辑线程）只写 head，
+ * 两边各自缓存对方的位置，只有看起来满 / 空时才去读对方的 volatile 值。
+ * 写入用 lazySet（release），读取用 get（acquire），不需要加锁。
+ *
+ * Single-producer / single-consumer lock-free ring buffer of ints.
+ * Exactly one thread may call offer() and exactly one thread may call poll().
+ */
+final class SpscIntQueue {
+
+    /** poll() 在队列为空时返回的值 */
+    static final int EMPTY = Integer.MIN_VALUE;
+
+    private final int[] buffer;
+    private final int mask;
+
+    /** 下一个要读的位置（只有消费者写） */
+    private final AtomicLong head = new AtomicLong();
+    /** 下一个要写的位置（只有生产者写） */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** 生产者缓存的 head，消费者缓存的 tail */
+    private long cachedHead;
+    private long cachedTail;
+
+    /** capacity 会向上取到 2 的幂 */
+    SpscIntQueue(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.buffer = new int[size];
+        this.mask = size - 1;
+    }
+
+    /** 生产者调用：放入一个值，队列满了返回 false（丢弃还是重试由调用方决定） */
+    boolean offer(int value) {
+        long t = tail.get();
+        if (t - cachedHead >= buffer.length) {
+            cachedHead = head.get();
+            if (t - cachedHead >= buffer.length) {
+                return false;
+            }
+        }
+        buffer[(int) t & mask] = value;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /** 消费者调用：取出一个值，队列为空返回 EMPTY */
+    int poll() {
+        long h = head.get();
+        if (h >= cachedTail) {
+            cachedTail = tail.get();
+            if (h >= cachedTail) {
+                return EMPTY;
+            }
+        }
+        int value = buffer[(int) h & mask];
+        head.lazySet(h + 1);
+        return value;
+    }
+}
@@ -0,0 +1,131 @@
+package com.comp2042;
+
+import java.util.Arrays;
+
+/**
+ * 机器人搜索用的固定大小置换表，所有搜索线程无锁共享。
+ *
+ * 每个桶有两项：深度优先的一项（只会被相同或更深的搜索、或者更新一代
+ * 搜索的条目替换）和总是替换的一项。一项由两个 long 组成：
+ * {@code key ^ data} 和 {@code data}；只有异或后得到原来的键才算命中。
+ * 并发写入造成的撕裂或写了一半的条目看起来就是未命中，所以竞争的线程
+ * 不会读到错误的值（经典的无锁哈希技巧）。
+ *
+ * data 布局：value（float 位，32）| depth（8）| rotation（8）| x + 128（8）| generation（8）
+ */
+public final class TranspositionTable {
+
+    private static final int ENTRY_LONGS = 2;
+    private static final int ENTRIES_PER_BUCKET = 2;
+
+    private final long[] table;
+    private final int bucketMask;
+
+    // 过期条目（更早的搜索）总是被替换
+    private volatile int generation;
+
+    /** {@link #probe} 命中时的结果 */
+    public static final class Entry {
+        private float value;
+        private int depth;
+        private int rotation;
+        private int x;
+
+        public double getValue() {
+            return value;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public int getRotation() {
+            return rotation;
+        }
+
+        public int getX() {
+            return x;
+        }
+    }
+
+    /** 桶数为不小于给定值的 2 的幂 */
+    public TranspositionTable(int buckets) {
+        if (buckets <= 0 || buckets > (1 << 26)) {
+            throw new IllegalArgumentException("buckets must be between 1 and " + (1 << 26) + ": " + buckets);
+        }
+        int size = Integer.highestOneBit(buckets);
+        if (size < buckets) {
+            size <<= 1;
+        }
+        this.table = new long[size * ENTRIES_PER_BUCKET * ENTRY_LONGS];
+        this.bucketMask = size - 1;
+    }
+
+    /** 开始新的一次搜索：更早的条目变为可替换 */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /** 清空全部内容（例如新的一局）。搜索进行中不能调用 */
+    public void clear() {
+        Arrays.fill(table, 0);
+    }
+
+    /**
+     * 查找键；命中时填充 {@code out} 并返回 true。
+     * 只有恰好搜索到 {@code depth} 的条目才算命中，因为不同深度的值不可比较。
+     */
+    public boolean probe(long key, int depth, Entry out) {
+        int base = bucketIndex(key);
+        for (int i = 0; i < ENTRIES_PER_BUCKET; i++) {
+            int at = base + i * ENTRY_LONGS;
+            long check = table[at];
+            long data = table[at + 1];
+            if ((check ^ data) == key && data != 0 && depthOf(data) == depth) {
+                out.value = Float.intBitsToFloat((int) (data >>> 32));
+                out.depth = depthOf(data);
+                out.rotation = (int) (data >>> 16) & 0xFF;
+                out.x = ((int) (data >>> 8) & 0xFF) - 128;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** 存入一个已搜索的节点：它的值、搜索深度和最佳落点 */
+    public void store(long key, int depth, double value, int rotation, int x) {
+        int gen = generation;
+        long data = ((long) Float.floatToIntBits((float) value) << 32)
+                | ((long) (depth & 0xFF) << 24)
+                | ((long) (rotation & 0xFF) << 16)
+                | ((long) ((x + 128) & 0xFF) << 8)
+                | gen;
+
+        int base = bucketIndex(key);
+        long deepData = table[base + 1];
+        boolean sameKey = (table[base] ^ deepData) == key;
+        if (deepData == 0 || sameKey || depth >= depthOf(deepData) || generationOf(deepData) != gen) {
+            write(base, key, data);
+        } else {
+            write(base + ENTRY_LONGS, key, data);
+        }
+    }
+
+    private void write(int at, long key, long data) {
+        table[at] = key ^ data;
+        table[at + 1] = data;
+    }
+
+    private int bucketIndex(long key) {
+        // Zobrist 键的低位和高位一样随机
+        return ((int) key & bucketMask) * ENTRIES_PER_BUCKET * ENTRY_LONGS;
+    }
+
+    private static int depthOf(long data) {
+        return (int) (data >>> 24) & 0xFF;
+    }
+
+    private static int generationOf(long data) {
+        return (int) data & 0xFF;
+    }
+}
@@ -15,8 +15,6 @@ public final class ViewConfig {
     public static final int PREVIEW_BRICK_SIZE = 20;
     // 顶部隐藏的行数（逻辑上存在，但不显示）
     public static final int BOARD_HIDDEN_ROWS = 2;
-    // 初始自动下落间隔（毫秒）
-    public static final int FALL_INTERVAL_MS = 400;
     // 方块圆角
     public static final int BRICK_CORNER_ARC = 9;
 
@@ -37,6 +35,12 @@ public final class ViewConfig {
             Color.BURLYWOOD.brighter()         // 7
     };
 
+    /**
+     * 选择棋盘绘制方式的系统属性：-Dtetris.renderer=canvas 使用 CanvasBoardView，
+     * 其它值（或不设置）使用默认的 Rectangle + GridPane 实现 BoardView。
+     */
+    public static final String RENDERER_PROPERTY = "tetris.renderer";
+
     private ViewConfig() {
         // 工具类，不需要实例化
     }
@@ -50,4 +54,11 @@ public final class ViewConfig {
         }
         return Color.WHITE;
     }
-}
\ No newline at end of file
+
+    /**
+     * 是否使用 Canvas 绘制棋盘（见 RENDERER_PROPERTY）。
+     */
+    public static boolean useCanvasRenderer() {
+        return "canvas".equalsIgnoreCase(System.getProperty(RENDERER_PROPERTY));
+    }
+}
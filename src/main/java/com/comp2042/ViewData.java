@@ -1,29 +1,47 @@
-// 视图数据类：把当前方块的位置、形状，以及下一个方块的形状打包成一个对象。
+// 视图数据类：把当前方块的位置、形状、落点（幽灵影子所在行），以及下一个方块的形状打包成一个对象。
 // GUI 每一帧都会从 board 取到一个 ViewData，然后根据里面的数据来更新画面。
 // 这个类本身不包含逻辑，只负责提供渲染所需的信息。
+// 形状直接引用共享的只读 BrickShape，整个对象不可变，读取时不需要复制；
+// version 只在内容变化时递增，GUI 可以用它跳过没有变化的重画。
 //
 // View data object: contains everything the GUI needs to draw the game,
-// including the current brick’s matrix and its position, plus the next brick.
+// including the current brick’s matrix, its position and landing row (ghost),
+// plus the next brick.
 // It has no game logic — it’s purely a data container for rendering.
+// It is immutable and references shared read-only shapes, so reading never
+// copies; the version only increases when the content changes.
 
 package com.comp2042;
 
+import com.comp2042.logic.bricks.BrickShape;
+
 public final class ViewData {
 
-    private final int[][] brickData;
+    private final BrickShape brickShape;
     private final int xPosition;
     private final int yPosition;
-    private final int[][] nextBrickData;
+    private final BrickShape nextBrickShape;
+    private final int ghostYPosition;
+    private final long version;
 
-    public ViewData(int[][] brickData, int xPosition, int yPosition, int[][] nextBrickData) {
-        this.brickData = brickData;
+    public ViewData(BrickShape brickShape, int xPosition, int yPosition,
+                    BrickShape nextBrickShape, int ghostYPosition, long version) {
+        this.brickShape = brickShape;
         this.xPosition = xPosition;
         this.yPosition = yPosition;
-        this.nextBrickData = nextBrickData;
+        this.nextBrickShape = nextBrickShape;
+        this.ghostYPosition = ghostYPosition;
+        this.version = version;
     }
 
+    /** 兼容旧代码：返回当前方块矩阵的副本（会分配内存，渲染请用 getBrickShape） */
     public int[][] getBrickData() {
-        return MatrixOperations.copy(brickData);
+        return brickShape.toMatrix();
+    }
+
+    /** 当前方块的只读形状（共享对象，不复制） */
+    public BrickShape getBrickShape() {
+        return brickShape;
     }
 
     public int getxPosition() {
@@ -34,7 +52,23 @@ public final class ViewData {
         return yPosition;
     }
 
+    /** 当前方块硬降后的落点行（由逻辑层计算并缓存） */
+    public int getGhostYPosition() {
+        return ghostYPosition;
+    }
+
+    /** 兼容旧代码：返回下一块矩阵的副本（会分配内存，渲染请用 getNextBrickShape） */
     public int[][] getNextBrickData() {
-        return MatrixOperations.copy(nextBrickData);
+        return nextBrickShape.toMatrix();
+    }
+
+    /** 下一块的只读形状（共享对象，不复制） */
+    public BrickShape getNextBrickShape() {
+        return nextBrickShape;
+    }
+
+    /** 状态版本号：单调递增，内容不变时版本号也不变 */
+    public long getVersion() {
+        return version;
     }
 }
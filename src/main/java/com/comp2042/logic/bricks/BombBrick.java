@@ -1,29 +1,30 @@
 package com.comp2042.logic.bricks;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class BombBrick implements Brick {
 
-    @Override
-    public List<int[][]> getShapeMatrix() {
+    /** 炸弹方块在矩阵中的 id */
+    public static final int BOMB_ID = 8;
 
-        List<int[][]> shapes = new ArrayList<>();
+    // 固定 4x4，只在中心放一个炸弹
+    private static final int[][] SHAPE = {
+            {0, 0, 0, 0},
+            {0, BOMB_ID, 0, 0},
+            {0, 0, 0, 0},
+            {0, 0, 0, 0}
+    };
 
-        // 固定 4x4，只在中心放一个炸弹
-        int[][] shape = {
-                {0, 0, 0, 0},
-                {0, 8, 0, 0},
-                {0, 0, 0, 0},
-                {0, 0, 0, 0}
-        };
+    // 炸弹不旋转 → 4 个形状都一样（类加载时编译一次）
+    static final List<BrickShape> SHAPES = BrickShape.compileAll(SHAPE, SHAPE, SHAPE, SHAPE);
 
-        // 炸弹不旋转 → 4 个形状都一样
-        shapes.add(shape);
-        shapes.add(shape);
-        shapes.add(shape);
-        shapes.add(shape);
+    @Override
+    public List<BrickShape> getShapes() {
+        return SHAPES;
+    }
 
-        return shapes;
+    @Override
+    public List<int[][]> getShapeMatrix() {
+        return BrickShape.toMatrices(SHAPES);
     }
-}
\ No newline at end of file
+}
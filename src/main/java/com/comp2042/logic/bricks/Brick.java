@@ -7,6 +7,15 @@ import java.util.List;
  * mainly used to retrieve the shape matrices of all rotation states.
  */
 public interface Brick {
+    /**
+     * 获取当前方块的所有旋转形状（只读，预先编译好，可以直接共享，不会复制）。
+     * 移动 / 旋转等高频路径应该用这个方法。
+     *
+     * Returns the precompiled, read-only rotation states of this brick.
+     * The list is shared and never copied, so hot paths should use this.
+     */
+    List<BrickShape> getShapes();
+
     /**
      * 获取当前方块的所有旋转形状（通常为 0°, 90°, 180°, 270°）。
      * 每个形状使用一个二维数组（int[][]）表示，其中 1 表示方块填充位置，0 表示空白。
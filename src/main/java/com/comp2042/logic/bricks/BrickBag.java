@@ -0,0 +1,80 @@
+package com.comp2042.logic.bricks;
+
+import java.util.List;
+
+/*
+ * “7-bag” 随机方式：把 7 种方块打乱成一袋，按顺序发完再洗下一袋。
+ * 这样任意连续 14 块里每种方块至少出现一次，不会出现长时间等不到长条的情况。
+ * 洗牌用 Fisher–Yates，随机数来自传入的 SplitMix64，所以同一个种子结果完全一样。
+ *
+ * 7-bag randomizer: deals every brick once per shuffled bag.
+ */
+final class BrickBag {
+
+    private final List<Brick> bricks;
+    private final SplitMix64 random;
+
+    /** 当前这一袋（下标），next 之前的已经发出去了 */
+    private final int[] order;
+    private int next;
+
+    BrickBag(List<Brick> bricks, SplitMix64 random) {
+        this.bricks = bricks;
+        this.random = random;
+        this.order = new int[bricks.size()];
+        this.next = order.length; // 第一次取的时候再洗牌
+    }
+
+    /** 复制袋子的进度，改用 random（通常是原随机流的副本） */
+    BrickBag copy(SplitMix64 random) {
+        BrickBag bag = new BrickBag(bricks, random);
+        System.arraycopy(order, 0, bag.order, 0, order.length);
+        bag.next = next;
+        return bag;
+    }
+
+    /** 原地复制另一个袋子的进度（随机流由调用方单独复制） */
+    void copyFrom(BrickBag other) {
+        System.arraycopy(other.order, 0, order, 0, order.length);
+        next = other.next;
+    }
+
+    /** 袋子进度的哈希（已经发出去的部分不影响之后的序列，但一起算进去也没关系） */
+    long stateHash() {
+        long h = next;
+        for (int index : order) {
+            h = h * 31 + index;
+        }
+        return h;
+    }
+
+    Brick next() {
+        if (next == order.length) {
+            shuffle();
+        }
+        return bricks.get(order[next++]);
+    }
+
+    /** 只重洗当前这一袋还没发出的部分（随机流换掉之后用，已经发出的不变） */
+    void reshuffleRemaining() {
+        shuffleFrom(next);
+    }
+
+    private void shuffle() {
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        shuffleFrom(0);
+        next = 0;
+    }
+
+    /** Fisher–Yates 打乱 order[from..] */
+    private void shuffleFrom(int from) {
+        for (int i = order.length - 1; i > from; i--) {
+            int j = from + random.nextInt(i - from + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+    }
+}
@@ -16,4 +16,22 @@ public interface BrickGenerator {
 
     // 返回下一块方块（用于界面预览）
     Brick getNextBrick();
+
+    // 扩展预览：peek(0) 就是 getNextBrick()，peek(1) 是再下一块，以此类推。
+    // 需要时提前生成放进队列，之后 getBrick() 给出的顺序和不预览时完全一样
+    Brick peek(int index);
+
+    // 复制一个状态完全相同的生成器（之后两者给出相同的方块序列），存档 / 回放用
+    BrickGenerator copy();
+
+    // 把自己的状态原地复制到 target 并返回它（不分配内存）；
+    // target 为 null 或者类型 / 模式不一样时退回 copy()。AI 搜索、撤销这类高频存档用
+    BrickGenerator copyInto(BrickGenerator target);
+
+    // 把“还没生成的”方块换成随机流 SplitMix64.stream(masterSeed, index) 决定的序列；
+    // 队列里已经有的（玩家看得到的预览）不变。蒙特卡洛推演用来随机化未来
+    void reseed(long masterSeed, long index);
+
+    // 当前状态的 64 位哈希：状态相同（之后的方块序列相同）哈希一定相同，给 AI 置换表用
+    long stateHash();
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package com.comp2042.logic.bricks;
+
+import com.comp2042.MatrixOperations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * 方块的某一个旋转形态（只读）。
+ * 在类加载时由 4x4 矩阵预先编译好：占用格子的偏移列表、包围盒、每一行的位图。
+ * 移动 / 旋转时直接读取这些数据，不需要再复制矩阵。
+ * 所有字段都不会暴露出去，外部只能通过方法读取，所以可以放心在各处共享。
+ *
+ * One rotation state of a brick (read-only).
+ * Compiled once from its 4x4 matrix at class-load time into a list of occupied
+ * cell offsets, a bounding box and per-row bit masks. The move path reads these
+ * directly without copying. Nothing mutable is exposed, so instances are shared.
+ */
+public final class BrickShape {
+
+    private final int id;
+    private final int rotation;
+    private final int[][] matrix;
+
+    /** 占用格子的偏移：第 i 个格子在 (cellX[i], cellY[i])，即 matrix[cellY][cellX] */
+    private final int[] cellX;
+    private final int[] cellY;
+
+    /** 包围盒（只算占用的格子） */
+    private final int minX;
+    private final int maxX;
+    private final int minY;
+    private final int maxY;
+
+    /** rowMasks[row]：第 row 行的占用位图，第 c 位对应 matrix[row][c] */
+    private final int[] rowMasks;
+
+    /** columnBottoms[col]：第 col 列最下面一个占用格子的行号，空列为 -1（算落点用） */
+    private final int[] columnBottoms;
+
+    private BrickShape(int rotation, int[][] source) {
+        this.rotation = rotation;
+        this.matrix = MatrixOperations.copy(source);
+
+        int size = matrix.length;
+        int count = 0;
+        int colorId = 0;
+        for (int[] row : matrix) {
+            for (int cell : row) {
+                if (cell != 0) {
+                    count++;
+                    colorId = cell;
+                }
+            }
+        }
+        this.id = colorId;
+
+        this.cellX = new int[count];
+        this.cellY = new int[count];
+        this.rowMasks = new int[size];
+        this.columnBottoms = new int[size];
+        Arrays.fill(columnBottoms, -1);
+
+        int lowX = size, highX = -1, lowY = size, highY = -1;
+        int i = 0;
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < matrix[r].length; c++) {
+                if (matrix[r][c] != 0) {
+                    cellX[i] = c;
+                    cellY[i] = r;
+                    i++;
+                    rowMasks[r] |= 1 << c;
+                    columnBottoms[c] = r;
+                    lowX = Math.min(lowX, c);
+                    highX = Math.max(highX, c);
+                    lowY = Math.min(lowY, r);
+                    highY = Math.max(highY, r);
+                }
+            }
+        }
+        this.minX = lowX;
+        this.maxX = highX;
+        this.minY = lowY;
+        this.maxY = highY;
+    }
+
+    /**
+     * 把一个方块的所有旋转矩阵编译成只读的形状列表。
+     * Compiles all rotation matrices of a brick into an unmodifiable list.
+     */
+    static List<BrickShape> compileAll(int[][]... rotations) {
+        List<BrickShape> shapes = new ArrayList<>(rotations.length);
+        for (int i = 0; i < rotations.length; i++) {
+            shapes.add(new BrickShape(i, rotations[i]));
+        }
+        return Collections.unmodifiableList(shapes);
+    }
+
+    /** 兼容旧接口：把形状列表复制成 int[][] 列表 */
+    static List<int[][]> toMatrices(List<BrickShape> shapes) {
+        List<int[][]> matrices = new ArrayList<>(shapes.size());
+        for (BrickShape shape : shapes) {
+            matrices.add(shape.toMatrix());
+        }
+        return matrices;
+    }
+
+    /** 颜色 id（1~7 普通方块，8 炸弹） */
+    public int getId() {
+        return id;
+    }
+
+    /** 在所属方块的旋转列表中的下标 */
+    public int getRotation() {
+        return rotation;
+    }
+
+    /** 形状矩阵边长（目前都是 4） */
+    public int getSize() {
+        return matrix.length;
+    }
+
+    /** matrix[row][col] 的值，0 表示空 */
+    public int getCell(int row, int col) {
+        return matrix[row][col];
+    }
+
+    /** 返回一份矩阵副本（给需要 int[][] 的旧代码用） */
+    public int[][] toMatrix() {
+        return MatrixOperations.copy(matrix);
+    }
+
+    public int getCellCount() {
+        return cellX.length;
+    }
+
+    public int getCellX(int index) {
+        return cellX[index];
+    }
+
+    public int getCellY(int index) {
+        return cellY[index];
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    public int getRowMask(int row) {
+        return rowMasks[row];
+    }
+
+    public int getColumnBottom(int col) {
+        return columnBottoms[col];
+    }
+}
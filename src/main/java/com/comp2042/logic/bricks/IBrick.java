@@ -1,41 +1,43 @@
 package com.comp2042.logic.bricks;
 
-import com.comp2042.MatrixOperations;
-
-import java.util.ArrayList;
 import java.util.List;
 
 /*
  * I 型方块（就是长条那种）。
  * 这里把它的两个主要旋转状态（水平和垂直）用矩阵的方式保存下来。
- * getShapeMatrix() 会返回一个深拷贝，避免外部修改原始数据。
+ * 形状在类加载时编译成只读的 BrickShape，getShapes() 直接共享，不再复制；
+ * getShapeMatrix() 仍然返回深拷贝，给需要 int[][] 的旧代码用。
  *
  * I-shaped Tetris brick (the long straight piece).
  * Stores both horizontal and vertical rotation states as 2D matrices.
- * getShapeMatrix() returns a deep copy so the original data stays unchanged.
+ * Shapes are compiled once into read-only BrickShape instances and shared
+ * through getShapes(); getShapeMatrix() still returns a deep copy.
  */
 final class IBrick implements Brick {
 
-    private final List<int[][]> brickMatrix = new ArrayList<>();
-
-    public IBrick() {
-        brickMatrix.add(new int[][]{
+    /** 所有旋转形态，类加载时编译一次，所有实例共享 */
+    static final List<BrickShape> SHAPES = BrickShape.compileAll(
+            new int[][]{
                 {0, 0, 0, 0},
                 {1, 1, 1, 1},
                 {0, 0, 0, 0},
                 {0, 0, 0, 0}
-        });
-        brickMatrix.add(new int[][]{
+            },
+            new int[][]{
                 {0, 1, 0, 0},
                 {0, 1, 0, 0},
                 {0, 1, 0, 0},
                 {0, 1, 0, 0}
-        });
+            }
+    );
+
+    @Override
+    public List<BrickShape> getShapes() {
+        return SHAPES;
     }
 
     @Override
     public List<int[][]> getShapeMatrix() {
-        return MatrixOperations.deepCopyList(brickMatrix);
+        return BrickShape.toMatrices(SHAPES);
     }
-
 }
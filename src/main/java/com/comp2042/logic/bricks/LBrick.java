@@ -1,54 +1,57 @@
 package com.comp2042.logic.bricks;
 
-import com.comp2042.MatrixOperations;
-
-import java.util.ArrayList;
 import java.util.List;
 
 /*
  * L 型方块（就是经典的 L 形）。
  * 这里把它的 4 个旋转形态全部用矩阵记录下来。
  * 用数字 3 表示 L 方块占的位置。
- * 返回矩阵时做深拷贝，避免调用方误改原始方块数据。
+ * 形状在类加载时编译成只读的 BrickShape，getShapes() 直接共享，不再复制；
+ * getShapeMatrix() 仍然返回深拷贝，给需要 int[][] 的旧代码用。
  *
  * L-shaped Tetris brick.
  * Stores all 4 rotation states as 2D matrices.
  * Uses number 3 to mark the filled cells.
- * getShapeMatrix() returns a deep copy to keep the original data safe.
+ * Shapes are compiled once into read-only BrickShape instances and shared
+ * through getShapes(); getShapeMatrix() still returns a deep copy.
  */
 final class LBrick implements Brick {
 
-    private final List<int[][]> brickMatrix = new ArrayList<>();
-
-    public LBrick() {
-        brickMatrix.add(new int[][]{
+    /** 所有旋转形态，类加载时编译一次，所有实例共享 */
+    static final List<BrickShape> SHAPES = BrickShape.compileAll(
+            new int[][]{
                 {0, 0, 0, 0},
                 {0, 3, 3, 3},
                 {0, 3, 0, 0},
                 {0, 0, 0, 0}
-        });
-        brickMatrix.add(new int[][]{
+            },
+            new int[][]{
                 {0, 0, 0, 0},
                 {0, 3, 3, 0},
                 {0, 0, 3, 0},
                 {0, 0, 3, 0}
-        });
-        brickMatrix.add(new int[][]{
+            },
+            new int[][]{
                 {0, 0, 0, 0},
                 {0, 0, 3, 0},
                 {3, 3, 3, 0},
                 {0, 0, 0, 0}
-        });
-        brickMatrix.add(new int[][]{
+            },
+            new int[][]{
                 {0, 3, 0, 0},
                 {0, 3, 0, 0},
                 {0, 3, 3, 0},
                 {0, 0, 0, 0}
-        });
+            }
+    );
+
+    @Override
+    public List<BrickShape> getShapes() {
+        return SHAPES;
     }
 
     @Override
     public List<int[][]> getShapeMatrix() {
-        return MatrixOperations.deepCopyList(brickMatrix);
+        return BrickShape.toMatrices(SHAPES);
     }
 }
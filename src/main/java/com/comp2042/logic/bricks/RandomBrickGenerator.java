@@ -1,21 +1,29 @@
 package com.comp2042.logic.bricks;
 
 import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 随机生成方块的类。
  * ⭐ 现在支持炸弹模式（allowBombs = true 时才会出现炸弹）。
  * 使用 nextBricks 队列支持“下一块预览”。
+ *
+ * 随机数来自 SplitMix64，给定种子时可以完全重现；
+ * sevenBag = true 时普通方块按 7-bag 发牌（炸弹仍然按概率插入，不占袋子里的位置）。
+ * 普通模式也用这个类（allowBombs = false，NormalBrickGenerator 就是这种固定写法），
+ * 不触发炸弹判定时不会多消耗随机数，所以两种模式的序列逻辑完全一样。
  */
 public class RandomBrickGenerator implements BrickGenerator {
 
-    private final List<Brick> normalBricks = new ArrayList<>();
+    private final List<Brick> normalBricks = ShapeRegistry.getNormalBricks();
     private final Deque<Brick> nextBricks = new ArrayDeque<>();
 
+    private final SplitMix64 random;
+
+    // 7-bag 模式下的袋子，独立随机时为 null
+    private final BrickBag bag;
+
     /** 是否启用炸弹模式（由主菜单决定） */
     private final boolean allowBombs;
 
@@ -27,34 +35,94 @@ public class RandomBrickGenerator implements BrickGenerator {
         this(false);
     }
 
-    /** 新构造：可以选择是否允许炸弹 */
+    /** 新构造：可以选择是否允许炸弹（随机种子） */
     public RandomBrickGenerator(boolean allowBombs) {
-        this.allowBombs = allowBombs;
+        this(allowBombs, SplitMix64.randomSeed(), false);
+    }
+
+    public RandomBrickGenerator(boolean allowBombs, long seed, boolean sevenBag) {
+        this(allowBombs, new SplitMix64(seed), sevenBag);
+    }
 
-        // 普通 7 种砖块
-        normalBricks.add(new IBrick());
-        normalBricks.add(new JBrick());
-        normalBricks.add(new LBrick());
-        normalBricks.add(new OBrick());
-        normalBricks.add(new SBrick());
-        normalBricks.add(new TBrick());
-        normalBricks.add(new ZBrick());
+    /** 直接使用给定的随机流（例如 SplitMix64.stream(masterSeed, worker)） */
+    public RandomBrickGenerator(boolean allowBombs, SplitMix64 random, boolean sevenBag) {
+        this.allowBombs = allowBombs;
+        this.random = random;
+        this.bag = sevenBag ? new BrickBag(normalBricks, random) : null;
 
         // 初始化 next 队列
         nextBricks.add(generate());
         nextBricks.add(generate());
     }
 
+    /** 复制构造：随机流、袋子和队列都复制一份 */
+    protected RandomBrickGenerator(RandomBrickGenerator other) {
+        this.allowBombs = other.allowBombs;
+        this.random = other.random.copy();
+        this.bag = other.bag == null ? null : other.bag.copy(random);
+        this.nextBricks.addAll(other.nextBricks);
+    }
+
+    @Override
+    public BrickGenerator copy() {
+        return new RandomBrickGenerator(this);
+    }
+
+    @Override
+    public void reseed(long masterSeed, long index) {
+        // 袋子和 random 共用同一个对象，之后的洗牌也跟着换；
+        // 当前这一袋还没发出的部分是按旧随机流洗的，也要用新流重洗，否则推演会“知道”隐藏的方块
+        random.setStream(masterSeed, index);
+        if (bag != null) {
+            bag.reshuffleRemaining();
+        }
+    }
+
+    @Override
+    public long stateHash() {
+        long h = random.stateHash();
+        if (bag != null) {
+            h = SplitMix64.mix(h ^ bag.stateHash());
+        }
+        for (Brick brick : nextBricks) {
+            h = SplitMix64.mix(h ^ brick.getShapes().get(0).getId());
+        }
+        return h;
+    }
+
+    @Override
+    public BrickGenerator copyInto(BrickGenerator other) {
+        if (!(other instanceof RandomBrickGenerator)) {
+            return copy();
+        }
+        RandomBrickGenerator target = (RandomBrickGenerator) other;
+        if ((target.bag == null) != (bag == null) || target.allowBombs != allowBombs) {
+            return copy();
+        }
+        target.random.copyFrom(random);
+        if (bag != null) {
+            target.bag.copyFrom(bag);
+        }
+        target.nextBricks.clear();
+        for (Brick brick : nextBricks) {
+            target.nextBricks.addLast(brick);
+        }
+        return target;
+    }
+
     /** 根据模式生成随机方块 */
     private Brick generate() {
 
         // ★ 炸弹模式：10% 生成 BombBrick
-        if (allowBombs && ThreadLocalRandom.current().nextDouble() < BOMB_PROBABILITY) {
-            return new BombBrick();
+        if (allowBombs && random.nextDouble() < BOMB_PROBABILITY) {
+            return ShapeRegistry.getBombBrick();
         }
 
         // 普通模式（或未触发炸弹概率）
-        return normalBricks.get(ThreadLocalRandom.current().nextInt(normalBricks.size()));
+        if (bag != null) {
+            return bag.next();
+        }
+        return normalBricks.get(random.nextInt(normalBricks.size()));
     }
 
     /** 取出当前方块，并补一个新的到队尾 */
@@ -74,4 +142,28 @@ public class RandomBrickGenerator implements BrickGenerator {
         }
         return nextBricks.peek();
     }
-}
\ No newline at end of file
+
+    /**
+     * 扩展预览：队列里不够 index + 1 块“下一块”就继续生成（顺序和之后 getBrick 取出的一样）。
+     * 队列首个元素是下一块，所以 index 直接对应队列下标。
+     */
+    @Override
+    public Brick peek(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("index must not be negative: " + index);
+        }
+        while (nextBricks.size() <= index) {
+            nextBricks.add(generate());
+        }
+        if (index == 0) {
+            return nextBricks.peek();
+        }
+        int i = 0;
+        for (Brick brick : nextBricks) {
+            if (i++ == index) {
+                return brick;
+            }
+        }
+        throw new IllegalStateException();
+    }
+}
@@ -1,42 +1,45 @@
 package com.comp2042.logic.bricks;
 
-import com.comp2042.MatrixOperations;
-
-import java.util.ArrayList;
 import java.util.List;
 
 /*
  * S 型方块（形状像一条倾斜的 S）。
  * 这个方块只有两个不同的旋转方向，所以只需要保存两个矩阵。
  * 用数字 5 表示 S 方块的位置。
- * getShapeMatrix() 会返回深拷贝，避免外面修改原始数据。
+ * 形状在类加载时编译成只读的 BrickShape，getShapes() 直接共享，不再复制；
+ * getShapeMatrix() 仍然返回深拷贝，给需要 int[][] 的旧代码用。
  *
  * S-shaped Tetris brick.
  * Only has two unique rotation states, so two matrices are stored.
  * Uses number 5 to mark the filled cells.
- * getShapeMatrix() returns a deep copy to keep the original safe.
+ * Shapes are compiled once into read-only BrickShape instances and shared
+ * through getShapes(); getShapeMatrix() still returns a deep copy.
  */
 final class SBrick implements Brick {
 
-    private final List<int[][]> brickMatrix = new ArrayList<>();
-
-    public SBrick() {
-        brickMatrix.add(new int[][]{
+    /** 所有旋转形态，类加载时编译一次，所有实例共享 */
+    static final List<BrickShape> SHAPES = BrickShape.compileAll(
+            new int[][]{
                 {0, 0, 0, 0},
                 {0, 5, 5, 0},
                 {5, 5, 0, 0},
                 {0, 0, 0, 0}
-        });
-        brickMatrix.add(new int[][]{
+            },
+            new int[][]{
                 {5, 0, 0, 0},
                 {5, 5, 0, 0},
                 {0, 5, 0, 0},
                 {0, 0, 0, 0}
-        });
+            }
+    );
+
+    @Override
+    public List<BrickShape> getShapes() {
+        return SHAPES;
     }
 
     @Override
     public List<int[][]> getShapeMatrix() {
-        return MatrixOperations.deepCopyList(brickMatrix);
+        return BrickShape.toMatrices(SHAPES);
     }
 }
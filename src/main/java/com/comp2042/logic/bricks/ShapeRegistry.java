@@ -0,0 +1,61 @@
+package com.comp2042.logic.bricks;
+
+import java.util.List;
+
+/**
+ * 全局共享的方块形状注册表。
+ * 所有方块的旋转形态都在类加载时编译成只读的 BrickShape，之后只读不写，
+ * 因此可以在任意线程、任意对象之间共享，不需要做防御性复制。
+ * 方块本身不保存状态，所以每种方块也只需要一个共享实例。
+ *
+ * Shared registry of brick shapes. Every rotation is compiled once at
+ * class-load time into a read-only BrickShape, so shapes (and the stateless
+ * brick instances) can be shared freely without defensive copies.
+ */
+public final class ShapeRegistry {
+
+    /** 按颜色 id 索引的共享方块实例：下标 1~7 为普通方块，8 为炸弹，0 为空 */
+    private static final Brick[] BRICKS_BY_ID = {
+            null,
+            new IBrick(),
+            new JBrick(),
+            new LBrick(),
+            new OBrick(),
+            new SBrick(),
+            new TBrick(),
+            new ZBrick(),
+            new BombBrick()
+    };
+
+    /** 经典 7 种方块（不含炸弹），按 id 顺序 */
+    private static final List<Brick> NORMAL_BRICKS = List.of(
+            BRICKS_BY_ID[1], BRICKS_BY_ID[2], BRICKS_BY_ID[3], BRICKS_BY_ID[4],
+            BRICKS_BY_ID[5], BRICKS_BY_ID[6], BRICKS_BY_ID[7]
+    );
+
+    private ShapeRegistry() {
+        // 工具类，不需要实例化
+    }
+
+    /** 根据颜色 id 取共享的方块实例；id 不存在时抛 IllegalArgumentException */
+    public static Brick getBrick(int id) {
+        if (id < 1 || id >= BRICKS_BY_ID.length) {
+            throw new IllegalArgumentException("Unknown brick id: " + id);
+        }
+        return BRICKS_BY_ID[id];
+    }
+
+    /** 根据颜色 id 取该方块的全部旋转形态 */
+    public static List<BrickShape> getShapes(int id) {
+        return getBrick(id).getShapes();
+    }
+
+    /** 经典 7 种方块（只读列表） */
+    public static List<Brick> getNormalBricks() {
+        return NORMAL_BRICKS;
+    }
+
+    public static Brick getBombBrick() {
+        return BRICKS_BY_ID[BombBrick.BOMB_ID];
+    }
+}
@@ -0,0 +1,155 @@
+package com.comp2042.logic.bricks;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * SplitMix64 伪随机数生成器（和 java.util.SplittableRandom 同一个算法）。
+ * 状态只有两个 long，生成一个数只需要几次乘法和移位，比 Random 快得多，
+ * 而且同一个种子在任何机器上都得到同样的序列。
+ *
+ * 和 SplittableRandom 不同的是：这里可以 copy() 出一个状态完全相同的副本，
+ * 也可以读出 / 恢复内部状态（getState / getGamma / setState），方便回放、存档和多线程模拟。
+ *
+ * 并行模拟时，每个 worker 用 stream(masterSeed, index) 取自己的随机流：
+ * 只跟 (主种子, 编号) 有关，跟线程调度顺序无关，所以结果可以在不同机器上重现。
+ *
+ * Not thread-safe: give each thread its own instance (split() / stream()).
+ */
+public final class SplitMix64 {
+
+    /** 黄金分割常数，默认的步长 */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long seed;
+    private long gamma;
+
+    public SplitMix64(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private SplitMix64(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /** 没有指定种子时用的随机种子（普通游戏用，不可重现） */
+    public static long randomSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * 从一个主种子派生第 index 条独立的随机流。
+     * 同样的 (masterSeed, index) 永远得到同样的序列。
+     */
+    public static SplitMix64 stream(long masterSeed, long index) {
+        long s = masterSeed + (index + 1) * GOLDEN_GAMMA;
+        return new SplitMix64(mix64(s), mixGamma(s + GOLDEN_GAMMA));
+    }
+
+    /** 原地切换到 stream(masterSeed, index) 那条流（不分配内存，蒙特卡洛模拟每次推演都要换一条） */
+    public void setStream(long masterSeed, long index) {
+        long s = masterSeed + (index + 1) * GOLDEN_GAMMA;
+        this.seed = mix64(s);
+        this.gamma = mixGamma(s + GOLDEN_GAMMA);
+    }
+
+    /** 派生一个新的、统计上独立的生成器（本生成器也会前进两步） */
+    public SplitMix64 split() {
+        return new SplitMix64(mix64(nextSeed()), mixGamma(nextSeed()));
+    }
+
+    /** 复制一个状态完全相同的生成器，之后两者产生相同的序列 */
+    public SplitMix64 copy() {
+        return new SplitMix64(seed, gamma);
+    }
+
+    /** 原地变成 other 的副本（不分配内存） */
+    public void copyFrom(SplitMix64 other) {
+        this.seed = other.seed;
+        this.gamma = other.gamma;
+    }
+
+    /** 当前内部状态（存档用，配合 getGamma 和 setState 恢复） */
+    public long getState() {
+        return seed;
+    }
+
+    /** 步长；不同的流（split / stream）步长不同，也是状态的一部分 */
+    public long getGamma() {
+        return gamma;
+    }
+
+    /** 把状态设回 getState() / getGamma() 当时的值，之后的序列和当时完全相同 */
+    public void setState(long state, long gamma) {
+        if ((gamma & 1) == 0) {
+            throw new IllegalArgumentException("gamma must be odd: " + gamma);
+        }
+        this.seed = state;
+        this.gamma = gamma;
+    }
+
+    /** 完整状态（种子和步长）的哈希；只有步长不同的两个生成器哈希也不同 */
+    public long stateHash() {
+        return mix64(seed ^ mix64(gamma));
+    }
+
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    public int nextInt() {
+        return mix32(nextSeed());
+    }
+
+    /** [0, bound) 之间均匀分布的整数 */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+        // Lemire 的乘法取高位 + 拒绝采样，没有取模偏差
+        long m = (nextInt() & 0xFFFFFFFFL) * bound;
+        long low = m & 0xFFFFFFFFL;
+        if (low < bound) {
+            long threshold = (0x1_0000_0000L - bound) % bound;
+            while (low < threshold) {
+                m = (nextInt() & 0xFFFFFFFFL) * bound;
+                low = m & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    /** [0, 1) 之间均匀分布的 double */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    /** 64 位混合函数（Stafford variant 13）：把任意 long 打散成均匀的 64 位，给哈希用 */
+    public static long mix(long z) {
+        return mix64(z);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    /** gamma 必须是奇数，且 01 交替不能太少（和 SplittableRandom 相同的处理） */
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
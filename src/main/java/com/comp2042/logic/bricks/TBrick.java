@@ -1,54 +1,57 @@
 package com.comp2042.logic.bricks;
 
-import com.comp2042.MatrixOperations;
-
-import java.util.ArrayList;
 import java.util.List;
 
 /*
  * T 型方块（形状就是一个 T 字）。
  * T 方块有四个方向，所以这里把四种旋转状态都存成矩阵。
  * 数字 6 表示 T 方块占据的位置。
- * getShapeMatrix() 返回深拷贝，避免外部修改原始数据。
+ * 形状在类加载时编译成只读的 BrickShape，getShapes() 直接共享，不再复制；
+ * getShapeMatrix() 仍然返回深拷贝，给需要 int[][] 的旧代码用。
  *
  * T-shaped Tetris brick.
  * Has four rotation states, so four matrices are stored here.
  * Uses number 6 for the filled cells.
- * getShapeMatrix() returns a deep copy to protect the original.
+ * Shapes are compiled once into read-only BrickShape instances and shared
+ * through getShapes(); getShapeMatrix() still returns a deep copy.
  */
 final class TBrick implements Brick {
 
-    private final List<int[][]> brickMatrix = new ArrayList<>();
-
-    public TBrick() {
-        brickMatrix.add(new int[][]{
+    /** 所有旋转形态，类加载时编译一次，所有实例共享 */
+    static final List<BrickShape> SHAPES = BrickShape.compileAll(
+            new int[][]{
                 {0, 0, 0, 0},
                 {6, 6, 6, 0},
                 {0, 6, 0, 0},
                 {0, 0, 0, 0}
-        });
-        brickMatrix.add(new int[][]{
+            },
+            new int[][]{
                 {0, 6, 0, 0},
                 {0, 6, 6, 0},
                 {0, 6, 0, 0},
                 {0, 0, 0, 0}
-        });
-        brickMatrix.add(new int[][]{
+            },
+            new int[][]{
                 {0, 6, 0, 0},
                 {6, 6, 6, 0},
                 {0, 0, 0, 0},
                 {0, 0, 0, 0}
-        });
-        brickMatrix.add(new int[][]{
+            },
+            new int[][]{
                 {0, 6, 0, 0},
                 {6, 6, 0, 0},
                 {0, 6, 0, 0},
                 {0, 0, 0, 0}
-        });
+            }
+    );
+
+    @Override
+    public List<BrickShape> getShapes() {
+        return SHAPES;
     }
 
     @Override
     public List<int[][]> getShapeMatrix() {
-        return MatrixOperations.deepCopyList(brickMatrix);
+        return BrickShape.toMatrices(SHAPES);
     }
 }
@@ -1,42 +1,45 @@
 package com.comp2042.logic.bricks;
 
-import com.comp2042.MatrixOperations;
-
-import java.util.ArrayList;
 import java.util.List;
 
 /*
  * Z 型方块（形状像一条反向的 Z）。
  * 这个方块只有两个独特的旋转方向，所以这里只存两个矩阵。
  * 用数字 7 标记 Z 方块占据的格子。
- * getShapeMatrix() 返回深拷贝，避免外部随便改动原始数据。
+ * 形状在类加载时编译成只读的 BrickShape，getShapes() 直接共享，不再复制；
+ * getShapeMatrix() 仍然返回深拷贝，给需要 int[][] 的旧代码用。
  *
  * Z-shaped Tetris brick (the mirrored version of the S piece).
  * Only two unique rotation states are needed.
  * Uses number 7 for the filled cells.
- * getShapeMatrix() returns a deep copy to protect the original matrices.
+ * Shapes are compiled once into read-only BrickShape instances and shared
+ * through getShapes(); getShapeMatrix() still returns a deep copy.
  */
 final class ZBrick implements Brick {
 
-    private final List<int[][]> brickMatrix = new ArrayList<>();
-
-    public ZBrick() {
-        brickMatrix.add(new int[][]{
+    /** 所有旋转形态，类加载时编译一次，所有实例共享 */
+    static final List<BrickShape> SHAPES = BrickShape.compileAll(
+            new int[][]{
                 {0, 0, 0, 0},
                 {7, 7, 0, 0},
                 {0, 7, 7, 0},
                 {0, 0, 0, 0}
-        });
-        brickMatrix.add(new int[][]{
+            },
+            new int[][]{
                 {0, 7, 0, 0},
                 {7, 7, 0, 0},
                 {7, 0, 0, 0},
                 {0, 0, 0, 0}
-        });
+            }
+    );
+
+    @Override
+    public List<BrickShape> getShapes() {
+        return SHAPES;
     }
 
     @Override
     public List<int[][]> getShapeMatrix() {
-        return MatrixOperations.deepCopyList(brickMatrix);
+        return BrickShape.toMatrices(SHAPES);
     }
 }
@@ -0,0 +1,213 @@
+package com.comp2042;
+
+import com.comp2042.logic.bricks.Brick;
+import com.comp2042.logic.bricks.BrickShape;
+import com.comp2042.logic.bricks.ShapeRegistry;
+import com.comp2042.logic.bricks.SplitMix64;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 碰撞检测的计时对比（不是单元测试，mvn test 不会跑它）：
+ * 旧的 4x4 矩阵循环（MatrixOperations.intersect / GhostRenderer.canPlace 原来的写法）
+ * 和 BoardState.intersects（包围盒 + 每行一次移位 AND）。
+ *
+ * 棋盘由固定种子随机生成，所以每次运行的工作量完全一样；
+ * 两种实现对每个位置的结果也会逐一比较，不一致就直接报错。
+ *
+ * 运行：先 mvn test-compile，然后
+ * java -cp target/classes:target/test-classes com.comp2042.CollisionBenchmark [rounds] [seed]
+ */
+public final class CollisionBenchmark {
+
+    private static final int BOARDS = 64;
+    private static final int WARMUP_ROUNDS = 5;
+
+    private CollisionBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 2042L;
+
+        SplitMix64 random = new SplitMix64(seed);
+        List<int[][]> matrices = new ArrayList<>(BOARDS);
+        List<BoardState> states = new ArrayList<>(BOARDS);
+        for (int i = 0; i < BOARDS; i++) {
+            int[][] matrix = randomBoard(random, GameEngine.ROWS, GameEngine.COLS);
+            BoardState state = new BoardState(GameEngine.ROWS, GameEngine.COLS);
+            state.replaceMatrix(matrix);
+            matrices.add(matrix);
+            states.add(state);
+        }
+
+        List<BrickShape> shapes = new ArrayList<>();
+        for (Brick brick : ShapeRegistry.getNormalBricks()) {
+            shapes.addAll(brick.getShapes());
+        }
+        List<int[][]> shapeMatrices = new ArrayList<>(shapes.size());
+        for (BrickShape shape : shapes) {
+            shapeMatrices.add(shape.toMatrix());
+        }
+
+        // 先确认两种写法结果一致
+        long expected = legacyIntersectAll(matrices, shapeMatrices);
+        long actual = intersectAll(states, shapes);
+        if (expected != actual) {
+            throw new IllegalStateException("intersect mismatch: " + expected + " vs " + actual);
+        }
+        long expectedGhost = legacyGhostAll(matrices, shapeMatrices);
+        long actualGhost = ghostAll(states, shapes);
+        if (expectedGhost != actualGhost) {
+            throw new IllegalStateException("ghost mismatch: " + expectedGhost + " vs " + actualGhost);
+        }
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            legacyIntersectAll(matrices, shapeMatrices);
+            intersectAll(states, shapes);
+            legacyGhostAll(matrices, shapeMatrices);
+            ghostAll(states, shapes);
+        }
+
+        long bestLegacy = Long.MAX_VALUE, bestNew = Long.MAX_VALUE;
+        long bestLegacyGhost = Long.MAX_VALUE, bestNewGhost = Long.MAX_VALUE;
+        long sink = 0;
+        for (int i = 0; i < rounds; i++) {
+            long t0 = System.nanoTime();
+            sink += legacyIntersectAll(matrices, shapeMatrices);
+            long t1 = System.nanoTime();
+            sink += intersectAll(states, shapes);
+            long t2 = System.nanoTime();
+            sink += legacyGhostAll(matrices, shapeMatrices);
+            long t3 = System.nanoTime();
+            sink += ghostAll(states, shapes);
+            long t4 = System.nanoTime();
+            bestLegacy = Math.min(bestLegacy, t1 - t0);
+            bestNew = Math.min(bestNew, t2 - t1);
+            bestLegacyGhost = Math.min(bestLegacyGhost, t3 - t2);
+            bestNewGhost = Math.min(bestNewGhost, t4 - t3);
+        }
+
+        long queries = (long) BOARDS * shapes.size() * (GameEngine.COLS + 6) * GameEngine.ROWS;
+        System.out.printf("seed %d, %d boards, %d rounds (best round shown), checksum %d%n",
+                seed, BOARDS, rounds, sink);
+        report("intersect, 4x4 loop", bestLegacy, queries);
+        report("intersect, BoardState", bestNew, queries);
+        report("ghost drop, 4x4 loop", bestLegacyGhost, 0);
+        report("ghost drop, BoardState", bestNewGhost, 0);
+    }
+
+    private static void report(String name, long nanos, long queries) {
+        if (queries > 0) {
+            System.out.printf("%-24s %8.2f ms  %6.1f ns/query%n", name, nanos / 1e6, (double) nanos / queries);
+        } else {
+            System.out.printf("%-24s %8.2f ms%n", name, nanos / 1e6);
+        }
+    }
+
+    /** 底部大约 60% 的行随机填充，每行至少留一个空位（和真实对局一样不会有满行） */
+    private static int[][] randomBoard(SplitMix64 random, int rows, int cols) {
+        int[][] matrix = new int[rows][cols];
+        int filledFrom = rows - rows * 3 / 5;
+        for (int y = filledFrom; y < rows; y++) {
+            for (int x = 0; x < cols; x++) {
+                if (random.nextInt(100) < 55) {
+                    matrix[y][x] = 1 + random.nextInt(7);
+                }
+            }
+            matrix[y][random.nextInt(cols)] = 0;
+        }
+        return matrix;
+    }
+
+    // ====== 每个形状、每个偏移都查一次（包括左右越界；旧写法不检查 y < 0，所以 y 从 0 开始） ======
+
+    private static long legacyIntersectAll(List<int[][]> boards, List<int[][]> shapes) {
+        long hits = 0;
+        for (int[][] board : boards) {
+            for (int[][] brick : shapes) {
+                for (int y = 0; y < board.length; y++) {
+                    for (int x = -3; x < board[0].length + 3; x++) {
+                        if (legacyIntersect(board, brick, x, y)) {
+                            hits += x * 31 + y;
+                        }
+                    }
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static long intersectAll(List<BoardState> boards, List<BrickShape> shapes) {
+        long hits = 0;
+        for (BoardState board : boards) {
+            for (BrickShape shape : shapes) {
+                for (int y = 0; y < board.getRows(); y++) {
+                    for (int x = -3; x < board.getCols() + 3; x++) {
+                        if (board.intersects(shape, x, y)) {
+                            hits += x * 31 + y;
+                        }
+                    }
+                }
+            }
+        }
+        return hits;
+    }
+
+    // ================= 每一列从顶部往下找落点（旧 GhostRenderer 的做法） =================
+
+    private static long legacyGhostAll(List<int[][]> boards, List<int[][]> shapes) {
+        long sum = 0;
+        for (int[][] board : boards) {
+            for (int[][] brick : shapes) {
+                for (int x = -3; x < board[0].length; x++) {
+                    if (legacyIntersect(board, brick, x, 0)) continue;
+                    int y = 0;
+                    while (!legacyIntersect(board, brick, x, y + 1)) {
+                        y++;
+                    }
+                    sum += x * 31 + y;
+                }
+            }
+        }
+        return sum;
+    }
+
+    private static long ghostAll(List<BoardState> boards, List<BrickShape> shapes) {
+        long sum = 0;
+        for (BoardState board : boards) {
+            for (BrickShape shape : shapes) {
+                for (int x = -3; x < board.getCols(); x++) {
+                    if (board.intersects(shape, x, 0)) continue;
+                    int y = 0;
+                    while (!board.intersects(shape, x, y + 1)) {
+                        y++;
+                    }
+                    sum += x * 31 + y;
+                }
+            }
+        }
+        return sum;
+    }
+
+    /** 改用 BrickShape 之前 MatrixOperations.intersect 的原样实现（保留“转置”的下标访问） */
+    private static boolean legacyIntersect(int[][] board, int[][] brick, int offsetX, int offsetY) {
+        for (int brickRow = 0; brickRow < brick.length; brickRow++) {
+            for (int brickCol = 0; brickCol < brick[brickRow].length; brickCol++) {
+                int targetX = offsetX + brickRow;
+                int targetY = offsetY + brickCol;
+                int brickCell = brick[brickCol][brickRow];
+                if (brickCell != 0) {
+                    if (targetX < 0 || targetY >= board.length || targetX >= board[targetY].length) {
+                        return true;
+                    }
+                    if (board[targetY][targetX] != 0) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}